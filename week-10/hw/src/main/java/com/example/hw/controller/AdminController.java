@@ -0,0 +1,117 @@
+package com.example.hw.controller;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.CompletableFuture;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.hw.service.ProductCatalog;
+import com.example.hw.service.ProductListBean;
+
+@RestController
+public class AdminController {
+
+  // Header that carries the admin token
+  private static final String TOKEN_HEADER = "X-Admin-Token";
+
+  // Member variable for the bean
+  private final ProductListBean productListBean;
+
+  // Token required by the admin endpoints, or empty to allow only
+  // requests from the local machine
+  private final String adminToken;
+
+  // Constructor injection
+  public AdminController(ProductListBean productListBean, @Value("${admin.token:}") String adminToken) {
+    this.productListBean = productListBean;
+    this.adminToken = adminToken;
+  }
+
+  /**
+   * Handles requests to reload the product file (POST /admin/reload).
+   * The file is parsed and indexed on a background thread; requests keep
+   * being served from the current catalog until the new one is swapped in.
+   * Answers 202 at once; GET /admin/reload reports how the reload ended,
+   * and a failed reload is also logged.
+   */
+  @PostMapping("/admin/reload")
+  public ResponseEntity<String> reload(HttpServletRequest request) {
+    if (!isAuthorized(request)) {
+      return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Forbidden");
+    }
+    productListBean.reloadAsync().whenComplete((next, e) -> {
+      if (e != null) {
+        // The current catalog stays in place
+        e.printStackTrace();
+      }
+    });
+    return ResponseEntity.accepted().header("Location", "/admin/reload").body("Reload started");
+  }
+
+  /**
+   * Handles reload status checks (GET /admin/reload).
+   * Answers 202 while the latest load is still running, 200 with the
+   * catalog version once it succeeded and 500 with the error if it failed.
+   */
+  @GetMapping("/admin/reload")
+  public ResponseEntity<String> reloadStatus(HttpServletRequest request) {
+    if (!isAuthorized(request)) {
+      return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Forbidden");
+    }
+    CompletableFuture<ProductCatalog> load = productListBean.getLastLoad();
+    if (!load.isDone()) {
+      return ResponseEntity.accepted().body("RELOADING");
+    }
+    return load.handle((next, e) -> e == null
+        ? ResponseEntity.ok("LOADED version " + next.getVersion() + ", " + next.size() + " products")
+        : ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("FAILED " + e))
+        .join();
+  }
+
+  /**
+   * Handles readiness checks (GET /ready).
+   * Answers 200 once a complete catalog has been loaded and 503 while
+   * the first load is still running, so a deploy can route traffic to
+   * the app only when it has products to show.
+   */
+  @GetMapping("/ready")
+  public ResponseEntity<String> ready() {
+    int size = productListBean.getCatalog().size();
+    if (productListBean.isLoaded()) {
+      return ResponseEntity.ok("READY " + size + " products");
+    }
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("LOADING " + size + " products");
+  }
+
+  // The app has no user accounts, so the admin endpoints are guarded by a
+  // shared token when admin.token is set. Without one only loopback
+  // clients are let in; behind a reverse proxy every client looks local,
+  // so set a token there.
+  private boolean isAuthorized(HttpServletRequest request) {
+    if (adminToken.isEmpty()) {
+      return isLoopback(request.getRemoteAddr());
+    }
+    String token = request.getHeader(TOKEN_HEADER);
+    // Compare in constant time so the token cannot be guessed byte by byte
+    return token != null && MessageDigest.isEqual(token.getBytes(StandardCharsets.UTF_8),
+        adminToken.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static boolean isLoopback(String address) {
+    try {
+      // The remote address is an IP literal, so this does no DNS lookup
+      return address != null && InetAddress.getByName(address).isLoopbackAddress();
+    } catch (UnknownHostException e) {
+      return false;
+    }
+  }
+}
@@ -0,0 +1,164 @@
+package com.example.hw.controller;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.example.hw.service.ProductCatalog;
+import com.example.hw.service.ProductListBean;
+
+/**
+ * Answers repeat views of the catalog pages ("/" and "/productdetail")
+ * without running the templates again.
+ *
+ * Every response carries an ETag and a Last-Modified date taken from the
+ * catalog version, so a browser that already has the page gets a 304.
+ * Otherwise the page is rendered once per URL, gzipped, and kept in a
+ * bounded in-memory cache; later requests for the same URL are served
+ * from the cache. A reload gives the catalog a new version, which empties
+ * the cache and changes every ETag.
+ *
+ * The catalog read at the start of a request is handed to the controller
+ * as a request attribute, so a page is always rendered from the catalog
+ * whose version it is cached and tagged under, even if a reload swaps the
+ * catalog while the page is being rendered.
+ */
+@Component
+public class CatalogPageCache extends OncePerRequestFilter {
+
+  // Request attribute holding the catalog a cached page must be rendered from
+  public static final String CATALOG_ATTRIBUTE = "com.example.hw.controller.CatalogPageCache.catalog";
+
+  // Most pages kept at once; the least recently used page is dropped first
+  private static final int MAX_PAGES = 2000;
+
+  // Member variable for the bean
+  private final ProductListBean productListBean;
+
+  // Rendered pages by URL, all for the catalog version below
+  private final LinkedHashMap<String, CachedPage> pages = new LinkedHashMap<>(256, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, CachedPage> eldest) {
+      return size() > MAX_PAGES;
+    }
+  };
+  private long cachedVersion = -1;
+
+  // Constructor injection
+  public CatalogPageCache(ProductListBean productListBean) {
+    this.productListBean = productListBean;
+  }
+
+  // Only GET requests for the catalog pages are handled here
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    String path = request.getRequestURI().substring(request.getContextPath().length());
+    return !"GET".equals(request.getMethod()) || !(path.equals("/") || path.equals("/productdetail"));
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain chain) throws ServletException, IOException {
+    ProductCatalog catalog = productListBean.getCatalog();
+
+    // Sets the ETag and Last-Modified headers, and answers 304 if the
+    // browser's copy is still current
+    String etag = "\"" + catalog.getVersionTag() + "\"";
+    if (new ServletWebRequest(request, response).checkNotModified(etag, catalog.getLoadedAt())) {
+      return;
+    }
+
+    String key = request.getQueryString() == null
+        ? request.getRequestURI()
+        : request.getRequestURI() + "?" + request.getQueryString();
+    CachedPage page = get(catalog.getVersion(), key);
+    if (page == null) {
+      // Render the page through the controller from this same catalog and
+      // keep the output
+      request.setAttribute(CATALOG_ATTRIBUTE, catalog);
+      ContentCachingResponseWrapper rendered = new ContentCachingResponseWrapper(response);
+      chain.doFilter(request, rendered);
+      if (rendered.getStatus() != HttpServletResponse.SC_OK) {
+        rendered.copyBodyToResponse();
+        return;
+      }
+      page = new CachedPage(rendered.getContentType(), gzip(rendered.getContentAsByteArray()));
+      put(catalog.getVersion(), key, page);
+    }
+    write(request, response, page);
+  }
+
+  // Sends a cached page, compressed if the browser accepts gzip
+  private static void write(HttpServletRequest request, HttpServletResponse response, CachedPage page)
+      throws IOException {
+    String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+    byte[] body = page.gzipped;
+    if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+      response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+    } else {
+      body = gunzip(body);
+    }
+    response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    if (page.contentType != null) {
+      response.setContentType(page.contentType);
+    }
+    response.setContentLength(body.length);
+    response.getOutputStream().write(body);
+  }
+
+  private synchronized CachedPage get(long version, String key) {
+    return version == cachedVersion ? pages.get(key) : null;
+  }
+
+  // Pages rendered from an older catalog are dropped all at once
+  private synchronized void put(long version, String key, CachedPage page) {
+    if (version < cachedVersion) {
+      return;
+    }
+    if (version > cachedVersion) {
+      pages.clear();
+      cachedVersion = version;
+    }
+    pages.put(key, page);
+  }
+
+  private static byte[] gzip(byte[] bytes) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+    try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+      gzip.write(bytes);
+    }
+    return out.toByteArray();
+  }
+
+  private static byte[] gunzip(byte[] bytes) throws IOException {
+    try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+      return in.readAllBytes();
+    }
+  }
+
+  // One rendered page: its content type and its gzipped body
+  private static final class CachedPage {
+    final String contentType;
+    final byte[] gzipped;
+
+    CachedPage(String contentType, byte[] gzipped) {
+      this.contentType = contentType;
+      this.gzipped = gzipped;
+    }
+  }
+}
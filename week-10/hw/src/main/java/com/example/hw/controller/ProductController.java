@@ -1,16 +1,41 @@
 package com.example.hw.controller;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import com.example.hw.model.Product;
+import com.example.hw.service.CsvLineWriter;
+import com.example.hw.service.ProductCatalog;
 import com.example.hw.service.ProductListBean;
 
 @Controller
 public class ProductController {
 
+  // Rows per index page unless the request asks for another size
+  private static final int DEFAULT_PAGE_SIZE = 50;
+
+  // Largest page a request may ask for
+  private static final int MAX_PAGE_SIZE = 1000;
+
+  // Export rows written between flushes, so the client receives chunks
+  // while the rest of the catalog is still being written
+  private static final int EXPORT_FLUSH_ROWS = 1000;
+
   // Member variable for the bean
   private final ProductListBean productListBean;
 
@@ -21,27 +46,185 @@ public class ProductController {
 
   /**
    * Handles requests for the index page ("/").
-   * Adds the full product list to the model.
+   * Adds one page of products to the model, so rendering costs the same
+   * however large the catalog is. Pages are chosen by number, as in
+   * /?page=2&size=50, or by keyset, as in /?after=P100, which starts
+   * right after the given product and stays stable across reloads that
+   * add or remove products before it. /?before=P200 is the keyset page
+   * that ends right before the given product, for the Previous link.
    */
   @GetMapping("/")
-  public String showIndexPage(Model model) {
-    // Add the list to the model
-    model.addAttribute("products", productListBean.getProductList());
+  public String showIndexPage(
+      @RequestParam(value = "page", defaultValue = "0") int page,
+      @RequestParam(value = "size", defaultValue = "" + DEFAULT_PAGE_SIZE) int size,
+      @RequestParam(value = "after", required = false) String after,
+      @RequestParam(value = "before", required = false) String before,
+      @RequestAttribute(value = CatalogPageCache.CATALOG_ATTRIBUTE, required = false) ProductCatalog pinned,
+      Model model) {
+    // Use one catalog for the whole request, even if a reload swaps it
+    ProductCatalog catalog = catalogFor(pinned);
+    int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+    // An unknown id has no place in the catalog, so it gets an empty page
+    List<Product> products;
+    int from;
+    if (after != null) {
+      int position = catalog.positionOf(after);
+      from = position < 0 ? catalog.size() : position + 1;
+      products = catalog.page(from, pageSize);
+    } else if (before != null) {
+      int to = Math.max(0, catalog.positionOf(before));
+      from = Math.max(0, to - pageSize);
+      products = catalog.page(from, to - from);
+    } else {
+      from = (int) Math.min(catalog.size(), (long) Math.max(0, page) * pageSize);
+      products = catalog.page(from, pageSize);
+    }
+
+    // Add the page and the keyset links to its neighbours to the model
+    model.addAttribute("products", products);
+    model.addAttribute("size", pageSize);
+    model.addAttribute("total", catalog.size());
+    if (!products.isEmpty() && from > 0) {
+      model.addAttribute("prevBefore", products.get(0).getId());
+    }
+    if (!products.isEmpty() && from + products.size() < catalog.size()) {
+      model.addAttribute("nextAfter", products.get(products.size() - 1).getId());
+    }
     return "index"; // Returns templates/index.html
   }
 
+  /**
+   * Handles export requests (/products/export).
+   * Streams the whole catalog as CSV. Rows are written straight to the
+   * response in chunks as they are produced, instead of being rendered
+   * into one buffered page first.
+   */
+  @GetMapping("/products/export")
+  public ResponseEntity<StreamingResponseBody> exportProducts() {
+    ProductCatalog catalog = productListBean.getCatalog();
+
+    StreamingResponseBody body = outputStream -> {
+      Writer out = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+      out.write(CsvLineWriter.HEADER);
+      out.write('\n');
+      int rows = 0;
+      for (Product product : catalog.getProducts()) {
+        CsvLineWriter.write(out, product);
+        if (++rows % EXPORT_FLUSH_ROWS == 0) {
+          out.flush();
+        }
+      }
+      out.flush();
+    };
+    return ResponseEntity.ok()
+        .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"products.csv\"")
+        .body(body);
+  }
+
   /**
    * Handles requests for the product detail page.
    * Finds the product by ID and adds it to the model.
    * The URL will be like /productdetail?id=P002
    */
   @GetMapping("/productdetail")
-  public String showDetailPage(@RequestParam("id") String id, Model model) {
+  public String showDetailPage(@RequestParam("id") String id,
+      @RequestAttribute(value = CatalogPageCache.CATALOG_ATTRIBUTE, required = false) ProductCatalog pinned,
+      Model model) {
     // Find the specific product
-    Product product = productListBean.findById(id);
+    Product product = catalogFor(pinned).findById(id);
 
     // Add the single product to the model
     model.addAttribute("product", product);
     return "productdetail"; // Returns templates/productdetail.html
   }
+
+  /**
+   * Handles filtered queries, like /products?minPrice=10&maxRating=4.
+   * Every bound is optional and inclusive. The matches are found through
+   * the catalog's price and rating indexes and shown on the index page,
+   * one page at a time, chosen by page number or by keyset with after
+   * and before just like the unfiltered list.
+   */
+  @GetMapping("/products")
+  public String showFilteredProducts(
+      @RequestParam(value = "minPrice", required = false) Double minPrice,
+      @RequestParam(value = "maxPrice", required = false) Double maxPrice,
+      @RequestParam(value = "minRating", required = false) Double minRating,
+      @RequestParam(value = "maxRating", required = false) Double maxRating,
+      @RequestParam(value = "page", defaultValue = "0") int page,
+      @RequestParam(value = "size", defaultValue = "" + DEFAULT_PAGE_SIZE) int size,
+      @RequestParam(value = "after", required = false) String after,
+      @RequestParam(value = "before", required = false) String before,
+      Model model) {
+    ProductCatalog catalog = productListBean.getCatalog();
+    int[] positions = catalog.filterPositions(minPrice, maxPrice, minRating, maxRating);
+    int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+    // The matches are in catalog order, so a keyset product is placed among
+    // them by its catalog position, whether or not it matches itself
+    int from;
+    int to;
+    if (after != null) {
+      int position = catalog.positionOf(after);
+      from = position < 0 ? positions.length : firstAtOrAfter(positions, position + 1);
+      to = Math.min(positions.length, from + pageSize);
+    } else if (before != null) {
+      to = firstAtOrAfter(positions, Math.max(0, catalog.positionOf(before)));
+      from = Math.max(0, to - pageSize);
+    } else {
+      from = (int) Math.min(positions.length, (long) Math.max(0, page) * pageSize);
+      to = Math.min(positions.length, from + pageSize);
+    }
+    List<Product> products = new ArrayList<>(to - from);
+    for (int i = from; i < to; i++) {
+      products.add(catalog.getProducts().get(positions[i]));
+    }
+
+    // Add the page and the keyset links to its neighbours to the model
+    model.addAttribute("products", products);
+    model.addAttribute("size", pageSize);
+    model.addAttribute("total", positions.length);
+    model.addAttribute("filtered", true);
+    if (!products.isEmpty() && from > 0) {
+      model.addAttribute("prevBefore", products.get(0).getId());
+    }
+    if (!products.isEmpty() && to < positions.length) {
+      model.addAttribute("nextAfter", products.get(products.size() - 1).getId());
+    }
+    return "index";
+  }
+
+  /**
+   * Handles text searches, like /search?q=wireless+mouse.
+   * Words are ANDed and OR separates alternatives. Matches come from the
+   * catalog's inverted index; the first page of them is shown on the
+   * index page.
+   */
+  @GetMapping("/search")
+  public String search(
+      @RequestParam(value = "q", defaultValue = "") String query,
+      @RequestParam(value = "size", defaultValue = "" + DEFAULT_PAGE_SIZE) int size,
+      Model model) {
+    List<Product> matches = productListBean.getCatalog().search(query);
+    int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+    model.addAttribute("products", matches.subList(0, Math.min(pageSize, matches.size())));
+    model.addAttribute("query", query);
+    model.addAttribute("matchCount", matches.size());
+    return "index";
+  }
+
+  // The catalog CatalogPageCache pinned for this request, so the page
+  // matches the version it is cached under, or else the current catalog
+  private ProductCatalog catalogFor(ProductCatalog pinned) {
+    return pinned != null ? pinned : productListBean.getCatalog();
+  }
+
+  // Index of the first entry of an ascending array that is at least key
+  private static int firstAtOrAfter(int[] positions, int key) {
+    int found = Arrays.binarySearch(positions, key);
+    return found >= 0 ? found : -found - 1;
+  }
 }
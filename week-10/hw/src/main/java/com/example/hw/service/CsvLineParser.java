@@ -0,0 +1,58 @@
+package com.example.hw.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits one CSV line into fields, honouring quotes as in RFC 4180.
+ *
+ * A field that starts with a double quote runs to the matching closing
+ * quote and may contain commas; a literal quote inside it is written as two
+ * quotes. Unquoted fields are taken exactly as written, so plain lines split
+ * the same way as String.split(","), except that trailing empty fields are
+ * kept. Quoted fields cannot span lines.
+ */
+public final class CsvLineParser {
+
+  private CsvLineParser() {
+  }
+
+  // Returns the fields of the line in order
+  public static List<String> parse(String line) {
+    List<String> fields = new ArrayList<>(8);
+    StringBuilder field = new StringBuilder();
+    int length = line.length();
+    int i = 0;
+    while (true) {
+      field.setLength(0);
+      if (i < length && line.charAt(i) == '"') {
+        i++;
+        while (i < length) {
+          char c = line.charAt(i++);
+          if (c != '"') {
+            field.append(c);
+          } else if (i < length && line.charAt(i) == '"') {
+            field.append('"'); // a doubled quote is a literal quote
+            i++;
+          } else {
+            break; // the closing quote
+          }
+        }
+        // Ignore anything between the closing quote and the next comma
+        while (i < length && line.charAt(i) != ',') {
+          i++;
+        }
+        fields.add(field.toString());
+      } else {
+        int comma = line.indexOf(',', i);
+        int end = comma < 0 ? length : comma;
+        fields.add(line.substring(i, end));
+        i = end;
+      }
+      if (i >= length) {
+        return fields;
+      }
+      i++; // step over the comma
+    }
+  }
+}
@@ -0,0 +1,58 @@
+package com.example.hw.service;
+
+import com.example.hw.model.Product;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes products as CSV lines in the column order of products.csv, so
+ * the output can be read back by CsvLineParser.
+ *
+ * A field that contains a comma, a quote or a line break is quoted, with
+ * any quote inside it doubled; every other field is written as it is.
+ */
+public final class CsvLineWriter {
+
+  // The header line of products.csv
+  public static final String HEADER = "Id,Name,Price,Stock Status,Rating,Description,Customer Review";
+
+  private CsvLineWriter() {
+  }
+
+  // Writes one product as a line, including the line break
+  public static void write(Writer out, Product product) throws IOException {
+    writeField(out, product.getId());
+    out.write(',');
+    writeField(out, product.getName());
+    out.write(',');
+    out.write(Double.toString(product.getPrice()));
+    out.write(',');
+    writeField(out, product.getStockStatus());
+    out.write(',');
+    out.write(Double.toString(product.getRating()));
+    out.write(',');
+    writeField(out, product.getDescription());
+    out.write(',');
+    writeField(out, product.getCustomerReview());
+    out.write('\n');
+  }
+
+  private static void writeField(Writer out, String field) throws IOException {
+    if (field == null) {
+      return;
+    }
+    boolean quote = false;
+    for (int i = 0; i < field.length() && !quote; i++) {
+      char c = field.charAt(i);
+      quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+    }
+    if (!quote) {
+      out.write(field);
+      return;
+    }
+    out.write('"');
+    out.write(field.replace("\"", "\"\""));
+    out.write('"');
+  }
+}
@@ -0,0 +1,202 @@
+package com.example.hw.service;
+
+import com.example.hw.model.Product;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+// An immutable, indexed view of the product list. Lookups by id are a
+// hash probe, price and rating ranges are answered from sorted indexes,
+// and text queries from an inverted index, instead of scanning every
+// product.
+public class ProductCatalog {
+
+  // Products in file order; the indexes hold positions in this list
+  private final List<Product> products;
+  private final Map<String, Integer> byId;
+  private final NavigableMap<Double, int[]> byPrice;
+  private final NavigableMap<Double, int[]> byRating;
+  private final SearchIndex searchIndex;
+
+  // Identifies this load of the products; a reload gets a new version
+  private final long version;
+  private final long loadedAt;
+
+  // Builds a catalog with version 0
+  public ProductCatalog(List<Product> products) {
+    this(products, 0);
+  }
+
+  // Builds all indexes once; the catalog never changes afterwards
+  public ProductCatalog(List<Product> products, long version) {
+    this.version = version;
+    this.loadedAt = System.currentTimeMillis();
+    this.products = Collections.unmodifiableList(new ArrayList<>(products));
+    this.byId = new HashMap<>(Math.max(16, products.size() * 4 / 3 + 1));
+    Map<Double, List<Integer>> prices = new TreeMap<>();
+    Map<Double, List<Integer>> ratings = new TreeMap<>();
+
+    for (int i = 0; i < this.products.size(); i++) {
+      Product product = this.products.get(i);
+      // The first product with an id wins, as the old linear search did
+      byId.putIfAbsent(product.getId(), i);
+      prices.computeIfAbsent(product.getPrice(), k -> new ArrayList<>()).add(i);
+      ratings.computeIfAbsent(product.getRating(), k -> new ArrayList<>()).add(i);
+    }
+    this.byPrice = toIndex(prices);
+    this.byRating = toIndex(ratings);
+    this.searchIndex = new SearchIndex(this.products);
+  }
+
+  // An empty catalog
+  public static ProductCatalog empty() {
+    return new ProductCatalog(List.of());
+  }
+
+  // The version of this catalog, increased by every reload
+  public long getVersion() {
+    return version;
+  }
+
+  // When this catalog was built, in epoch milliseconds
+  public long getLoadedAt() {
+    return loadedAt;
+  }
+
+  // A tag that differs for every catalog, including across restarts,
+  // for use in ETags
+  public String getVersionTag() {
+    return Long.toString(loadedAt, 36) + "-" + version;
+  }
+
+  // All products, in file order
+  public List<Product> getProducts() {
+    return products;
+  }
+
+  // Number of products
+  public int size() {
+    return products.size();
+  }
+
+  // Finds a single product by its ID, or null if there is none
+  public Product findById(String id) {
+    int position = positionOf(id);
+    return position < 0 ? null : products.get(position);
+  }
+
+  // Position of the product with an ID in file order, or -1 if there is none
+  public int positionOf(String id) {
+    Integer position = id == null ? null : byId.get(id);
+    return position == null ? -1 : position;
+  }
+
+  // Up to size products starting at a position, in file order. The page
+  // is a view of the catalog, so this costs the same for any catalog size.
+  public List<Product> page(int from, int size) {
+    int start = Math.min(Math.max(0, from), products.size());
+    int end = (int) Math.min(products.size(), (long) start + Math.max(0, size));
+    return products.subList(start, end);
+  }
+
+  /**
+   * Finds the products whose price and rating lie within the given
+   * inclusive bounds, in file order. A null bound is open.
+   * The narrower of the two ranges is read from its index and only those
+   * candidates are checked against the other range.
+   */
+  public List<Product> filter(Double minPrice, Double maxPrice, Double minRating, Double maxRating) {
+    int[] positions = filterPositions(minPrice, maxPrice, minRating, maxRating);
+    List<Product> result = new ArrayList<>(positions.length);
+    for (int position : positions) {
+      result.add(products.get(position));
+    }
+    return result;
+  }
+
+  // Positions of the products that filter would return, in ascending
+  // order, for callers that page through the matches
+  public int[] filterPositions(Double minPrice, Double maxPrice, Double minRating, Double maxRating) {
+    NavigableMap<Double, int[]> prices = range(byPrice, minPrice, maxPrice);
+    NavigableMap<Double, int[]> ratings = range(byRating, minRating, maxRating);
+    if (prices == null || ratings == null) {
+      return new int[0];
+    }
+
+    // Read the range with fewer candidates and check the other bound per row
+    int priceCount = count(prices);
+    int ratingCount = count(ratings);
+    boolean usePrice = priceCount <= ratingCount;
+    int[] positions = new int[usePrice ? priceCount : ratingCount];
+    int n = 0;
+    for (int[] rows : (usePrice ? prices : ratings).values()) {
+      for (int row : rows) {
+        Product product = products.get(row);
+        boolean inRange = usePrice
+            ? inRange(product.getRating(), minRating, maxRating)
+            : inRange(product.getPrice(), minPrice, maxPrice);
+        if (inRange) {
+          positions[n++] = row;
+        }
+      }
+    }
+
+    // Return the matches in file order, like the unfiltered list
+    Arrays.sort(positions, 0, n);
+    return Arrays.copyOf(positions, n);
+  }
+
+  // Finds the products whose name, description or review match a search
+  // query, in file order; see SearchIndex for the query syntax
+  public List<Product> search(String query) {
+    int[] positions = searchIndex.search(query);
+    List<Product> result = new ArrayList<>(positions.length);
+    for (int position : positions) {
+      result.add(products.get(position));
+    }
+    return result;
+  }
+
+  // Returns the part of an index between two bounds, or null if the
+  // bounds are crossed
+  private static NavigableMap<Double, int[]> range(NavigableMap<Double, int[]> index, Double min, Double max) {
+    if (min != null && max != null && min > max) {
+      return null;
+    }
+    NavigableMap<Double, int[]> range = index;
+    if (min != null) {
+      range = range.tailMap(min, true);
+    }
+    if (max != null) {
+      range = range.headMap(max, true);
+    }
+    return range;
+  }
+
+  private static boolean inRange(double value, Double min, Double max) {
+    return (min == null || value >= min) && (max == null || value <= max);
+  }
+
+  private static int count(NavigableMap<Double, int[]> range) {
+    int count = 0;
+    for (int[] rows : range.values()) {
+      count += rows.length;
+    }
+    return count;
+  }
+
+  // Freezes the position lists of an index into arrays
+  private static NavigableMap<Double, int[]> toIndex(Map<Double, List<Integer>> lists) {
+    TreeMap<Double, int[]> index = new TreeMap<>();
+    for (Map.Entry<Double, List<Integer>> entry : lists.entrySet()) {
+      index.put(entry.getKey(), entry.getValue().stream().mapToInt(Integer::intValue).toArray());
+    }
+    return Collections.unmodifiableNavigableMap(index);
+  }
+}
@@ -1,6 +1,8 @@
 package com.example.hw.service;
 
 import com.example.hw.model.Product;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Component;
@@ -9,72 +11,293 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 @Component // Creates a bean of this class
 public class ProductListBean {
 
-  // Member variable for the list
-  private final List<Product> productList;
+  // Rows read before the first partial catalog is published
+  private static final int FIRST_PARTIAL_ROWS = 1000;
 
-  // Constructor loads data from CSV
-  public ProductListBean() {
-    this.productList = new ArrayList<>();
+  // How often the watched file is checked while it is still being written;
+  // it is reloaded once its size and modification time stay the same for
+  // one whole interval
+  private static final long WATCH_SETTLE_MILLIS = 500;
 
-    // Load the CSV file from the resources directory
-    Resource resource = new ClassPathResource("products.csv");
+  // The current catalog. A reload builds a complete new catalog and swaps
+  // it in, so a request that read the reference keeps a consistent view
+  // and the old catalog is freed once the last such request finishes.
+  private final AtomicReference<ProductCatalog> catalog = new AtomicReference<>();
 
-    try (InputStream inputStream = resource.getInputStream();
-        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream))) {
-
-      String line;
-
-      // Skip the header row
-      reader.readLine();
-
-      // Read each line, split by comma, create Product, add to list
-      while ((line = reader.readLine()) != null) {
-        // Split the line by commas
-        // Using a limit ensures the last two fields (with potential commas)
-        // are handled correctly, although for this specific CSV, a simple split is
-        // fine.
-        // For robustness with commas in descriptions/reviews, a proper CSV parser is
-        // better.
-        // For this assignment, we assume simple comma separation.
-        String[] data = line.split(",");
-
-        // Create and add the product
-        Product product = new Product(
-            data[0], // id
-            data[1], // name
-            Double.parseDouble(data[2]), // price
-            data[3], // stock status
-            Double.parseDouble(data[4]), // rating
-            data[5], // description
-            data[6] // customer review
-        );
-        this.productList.add(product);
-      }
+  // Numbers the catalogs, so caches can tell a reloaded catalog apart
+  private final AtomicLong versions = new AtomicLong();
 
-    } catch (IOException e) {
+  // External products file, or null to use the bundled resources
+  private final Path productsFile;
+
+  // Reloads run one at a time on this thread, never on a request thread
+  private final ExecutorService reloader = Executors.newSingleThreadExecutor(r -> {
+    Thread thread = new Thread(r, "product-reloader");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  // The queued reload, if one has not started yet
+  private CompletableFuture<ProductCatalog> queuedReload;
+
+  // The most recently requested load, finished or not, for status checks
+  private volatile CompletableFuture<ProductCatalog> lastLoad;
+
+  private WatchService watchService;
+
+  // Whether a complete catalog has been loaded at least once
+  private volatile boolean loaded;
+
+  // Constructor starts with an empty catalog and loads the products on the
+  // reload thread, so the application starts without waiting for them.
+  // With products.partial-load set, the rows read so far are published as
+  // the load goes on. When products.file names an external file, changes
+  // to it are reloaded automatically.
+  public ProductListBean(@Value("${products.file:}") String productsFile,
+      @Value("${products.partial-load:false}") boolean partialLoad) {
+    this.productsFile = productsFile.isBlank() ? null : Paths.get(productsFile).toAbsolutePath();
+    this.catalog.set(new ProductCatalog(List.of(), versions.incrementAndGet()));
+
+    startLoad(partialLoad).exceptionally(e -> {
       e.printStackTrace();
       // Handle exception properly in a real app
+      return null;
+    });
+
+    if (this.productsFile != null) {
+      startWatcher();
     }
   }
 
   // Get method for the list
   public List<Product> getProductList() {
-    return productList;
+    return catalog.get().getProducts();
+  }
+
+  // Get method for the indexed catalog. Callers that need several values
+  // should read it once and use that catalog throughout.
+  public ProductCatalog getCatalog() {
+    return catalog.get();
   }
 
-  // Helper method to find a single product by its ID
+  // Helper method to find a single product by its ID, via the hash index
   public Product findById(String id) {
-    for (Product product : productList) {
-      if (product.getId().equals(id)) {
-        return product;
+    return catalog.get().findById(id);
+  }
+
+  // Whether a complete catalog has been loaded, for the readiness check
+  public boolean isLoaded() {
+    return loaded;
+  }
+
+  // The most recently requested load. It completes with the new catalog,
+  // or exceptionally if the file could not be read.
+  public CompletableFuture<ProductCatalog> getLastLoad() {
+    return lastLoad;
+  }
+
+  // Starts a reload in the background and returns a future for the new
+  // catalog. Requests that arrive while a reload is still queued share it.
+  // If the new file cannot be read the future fails and the current
+  // catalog stays in place.
+  public CompletableFuture<ProductCatalog> reloadAsync() {
+    return startLoad(false);
+  }
+
+  // Queues a load on the reload thread. A partial load also publishes the
+  // rows read so far, which only makes sense while nothing better is shown.
+  private synchronized CompletableFuture<ProductCatalog> startLoad(boolean partial) {
+    if (queuedReload == null) {
+      CompletableFuture<ProductCatalog> reload = new CompletableFuture<>();
+      queuedReload = reload;
+      lastLoad = reload;
+      reloader.execute(() -> {
+        synchronized (this) {
+          queuedReload = null; // later requests must see the file as it is now
+        }
+        try {
+          List<Product> products = loadProducts(partial
+              ? rows -> catalog.set(new ProductCatalog(rows, versions.incrementAndGet()))
+              : null);
+          ProductCatalog next = new ProductCatalog(products, versions.incrementAndGet());
+          catalog.set(next);
+          loaded = true;
+          reload.complete(next);
+        } catch (IOException | RuntimeException e) {
+          reload.completeExceptionally(e);
+        }
+      });
+    }
+    return queuedReload;
+  }
+
+  // Stops the file watcher and the reload thread when the app shuts down
+  @PreDestroy
+  public void close() throws IOException {
+    if (watchService != null) {
+      watchService.close();
+    }
+    reloader.shutdownNow();
+  }
+
+  // Loads data from the external file if one is configured, otherwise
+  // from the bundled binary snapshot if present, otherwise from CSV.
+  // A non-null partial callback receives the CSV rows read so far.
+  private List<Product> loadProducts(Consumer<List<Product>> partial) throws IOException {
+    if (productsFile != null) {
+      try (InputStream inputStream = Files.newInputStream(productsFile)) {
+        return productsFile.toString().endsWith(".bin")
+            ? ProductSnapshotReader.read(inputStream)
+            : readCsv(inputStream, partial);
+      }
+    }
+
+    // A pre-parsed snapshot (see the week-5 SnapshotConverter) skips all
+    // text parsing, so prefer it when it has been generated
+    Resource snapshot = new ClassPathResource("products.bin");
+    if (snapshot.exists()) {
+      try (InputStream inputStream = snapshot.getInputStream()) {
+        return ProductSnapshotReader.read(inputStream);
+      } catch (IOException e) {
+        e.printStackTrace();
+        // Fall back to the CSV file below
+      }
+    }
+
+    // Load the CSV file from the resources directory
+    Resource resource = new ClassPathResource("products.csv");
+    try (InputStream inputStream = resource.getInputStream()) {
+      return readCsv(inputStream, partial);
+    }
+  }
+
+  // Parses a products CSV file, handing the rows read so far to the
+  // partial callback, if any, each time their number doubles
+  private static List<Product> readCsv(InputStream inputStream, Consumer<List<Product>> partial)
+      throws IOException {
+    List<Product> productList = new ArrayList<>();
+    int nextPartial = FIRST_PARTIAL_ROWS;
+    BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream));
+
+    String line;
+
+    // Skip the header row
+    reader.readLine();
+
+    // Read each line, split it into fields, create Product, add to list
+    while ((line = reader.readLine()) != null) {
+      // Quoted fields may contain commas, so a plain split(",") is not enough
+      List<String> data = CsvLineParser.parse(line);
+
+      // Create and add the product
+      Product product = new Product(
+          data.get(0), // id
+          data.get(1), // name
+          Double.parseDouble(data.get(2)), // price
+          data.get(3), // stock status
+          Double.parseDouble(data.get(4)), // rating
+          data.get(5), // description
+          data.get(6) // customer review
+      );
+      productList.add(product);
+
+      // Doubling the interval keeps the total indexing work linear
+      if (partial != null && productList.size() == nextPartial) {
+        partial.accept(productList);
+        nextPartial *= 2;
+      }
+    }
+    return productList;
+  }
+
+  // Watches the directory of the external file and reloads whenever the
+  // file is created, replaced or changed. A change is only reloaded once
+  // the file has stopped changing, so a writer that copies or appends to
+  // it in place is not read half way through.
+  private void startWatcher() {
+    try {
+      watchService = FileSystems.getDefault().newWatchService();
+      productsFile.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+          StandardWatchEventKinds.ENTRY_MODIFY);
+    } catch (IOException e) {
+      e.printStackTrace();
+      // Reloads are still available through the admin endpoint
+      return;
+    }
+
+    Thread watcher = new Thread(() -> {
+      try {
+        while (true) {
+          WatchKey key = watchService.take();
+          boolean changed = false;
+          for (WatchEvent<?> event : key.pollEvents()) {
+            if (productsFile.getFileName().equals(event.context())) {
+              changed = true;
+            }
+          }
+          key.reset();
+          if (changed && awaitSettled()) {
+            // The events raised while waiting belong to the same change
+            WatchKey pending;
+            while ((pending = watchService.poll()) != null) {
+              pending.pollEvents();
+              pending.reset();
+            }
+            reloadAsync().exceptionally(e -> {
+              e.printStackTrace();
+              return null;
+            });
+          }
+        }
+      } catch (InterruptedException | ClosedWatchServiceException e) {
+        // The app is shutting down
+      }
+    }, "product-file-watcher");
+    watcher.setDaemon(true);
+    watcher.start();
+  }
+
+  // Waits until the size and modification time of the external file are
+  // the same at two checks in a row. Returns false if the file is gone,
+  // in which case its re-creation will be reported as a new change.
+  private boolean awaitSettled() throws InterruptedException {
+    long[] previous = null;
+    while (true) {
+      Thread.sleep(WATCH_SETTLE_MILLIS);
+      long[] current;
+      try {
+        BasicFileAttributes attributes = Files.readAttributes(productsFile, BasicFileAttributes.class);
+        current = new long[] {attributes.size(), attributes.lastModifiedTime().toMillis()};
+      } catch (IOException e) {
+        return false;
+      }
+      if (Arrays.equals(previous, current)) {
+        return true;
       }
+      previous = current;
     }
-    return null; // Not found
   }
 }
@@ -0,0 +1,87 @@
+package com.example.hw.service;
+
+import com.example.hw.model.Product;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Reads the binary product snapshot written by the week-5 SnapshotConverter.
+ *
+ * Layout (big-endian):
+ * header : magic "PSNP" | int version | long row count | long CRC32 of body
+ * row    : id | name | double price | stockStatus | double rating | description | customerReview
+ * string : int byte length | UTF-8 bytes
+ */
+public final class ProductSnapshotReader {
+
+  private static final int MAGIC = 0x50534E50; // "PSNP"
+  private static final int VERSION = 1;
+
+  // The smallest possible row: five empty strings and two doubles
+  private static final int MIN_ROW_BYTES = 5 * Integer.BYTES + 2 * Double.BYTES;
+
+  private ProductSnapshotReader() {
+  }
+
+  // Reads every product in the snapshot. The checksum is verified over the
+  // whole body before anything is decoded, and a body that does not hold
+  // exactly the promised rows is rejected, so a damaged snapshot always
+  // fails with an IOException and callers can fall back to the CSV file.
+  public static List<Product> read(InputStream inputStream) throws IOException {
+    DataInputStream header = new DataInputStream(inputStream);
+    if (header.readInt() != MAGIC || header.readInt() != VERSION) {
+      throw new IOException("Not a product snapshot");
+    }
+    long rowCount = header.readLong();
+    long checksum = header.readLong();
+
+    byte[] body = inputStream.readAllBytes();
+    CRC32 crc = new CRC32();
+    crc.update(body);
+    if (crc.getValue() != checksum) {
+      throw new IOException("Snapshot checksum mismatch");
+    }
+    if (rowCount < 0 || rowCount > body.length / MIN_ROW_BYTES) {
+      throw new IOException("Snapshot row count " + rowCount + " does not fit its body");
+    }
+
+    ByteBuffer in = ByteBuffer.wrap(body); // big-endian, as written
+    List<Product> products = new ArrayList<>((int) rowCount);
+    try {
+      for (long row = 0; row < rowCount; row++) {
+        String id = readString(in);
+        String name = readString(in);
+        double price = in.getDouble();
+        String stockStatus = readString(in);
+        double rating = in.getDouble();
+        String description = readString(in);
+        String customerReview = readString(in);
+        products.add(new Product(id, name, price, stockStatus, rating, description, customerReview));
+      }
+    } catch (BufferUnderflowException | IllegalArgumentException e) {
+      throw new IOException("Snapshot body is truncated or corrupt", e);
+    }
+    if (in.hasRemaining()) {
+      throw new IOException("Snapshot has " + in.remaining() + " bytes after the last row");
+    }
+    return products;
+  }
+
+  private static String readString(ByteBuffer in) {
+    int length = in.getInt();
+    if (length < 0 || length > in.remaining()) {
+      throw new IllegalArgumentException("Bad string length " + length);
+    }
+    String value = new String(in.array(), in.position(), length, StandardCharsets.UTF_8);
+    in.position(in.position() + length);
+    return value;
+  }
+}
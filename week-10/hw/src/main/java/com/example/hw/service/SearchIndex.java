@@ -0,0 +1,193 @@
+package com.example.hw.service;
+
+import com.example.hw.model.Product;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * An inverted index over the name, description and customer review of
+ * every product, built once with its catalog.
+ *
+ * Text is split into lower-case tokens of letters and digits. The token
+ * dictionary maps each token to its postings list: the sorted positions of
+ * the products that contain it. A query is answered by intersecting and
+ * merging postings lists, so its cost depends on the lengths of the lists
+ * it touches rather than on the number of products.
+ *
+ * Query syntax: words are ANDed together, and OR between words separates
+ * alternatives, so "usb cable OR charger" finds products with both "usb"
+ * and "cable", or with "charger".
+ */
+public final class SearchIndex {
+
+  private static final int[] NO_POSITIONS = new int[0];
+
+  // Token dictionary: each token maps to the ascending positions of the
+  // products that contain it
+  private final Map<String, int[]> postings;
+
+  // Builds the index over products in catalog order
+  public SearchIndex(List<Product> products) {
+    Map<String, PostingsBuilder> builders = new HashMap<>();
+    List<String> tokens = new ArrayList<>();
+    for (int position = 0; position < products.size(); position++) {
+      Product product = products.get(position);
+      tokens.clear();
+      tokenize(product.getName(), tokens);
+      tokenize(product.getDescription(), tokens);
+      tokenize(product.getCustomerReview(), tokens);
+      for (String token : tokens) {
+        builders.computeIfAbsent(token, t -> new PostingsBuilder()).add(position);
+      }
+    }
+
+    this.postings = new HashMap<>(Math.max(16, builders.size() * 4 / 3 + 1));
+    for (Map.Entry<String, PostingsBuilder> entry : builders.entrySet()) {
+      postings.put(entry.getKey(), entry.getValue().toArray());
+    }
+  }
+
+  // Number of distinct tokens in the dictionary
+  public int getTokenCount() {
+    return postings.size();
+  }
+
+  // Returns the ascending positions of the products that match a query.
+  // A query with no words matches nothing.
+  public int[] search(String query) {
+    int[] result = NO_POSITIONS;
+    if (query == null) {
+      return result;
+    }
+
+    // OR separates alternatives; the words of each alternative are ANDed
+    for (String alternative : query.split("\\s+OR\\s+")) {
+      List<String> words = new ArrayList<>();
+      tokenize(alternative, words);
+      if (!words.isEmpty()) {
+        result = union(result, matchAll(words));
+      }
+    }
+    return result;
+  }
+
+  // Intersects the postings of every word, shortest list first, so the
+  // running result only ever shrinks
+  private int[] matchAll(List<String> words) {
+    int[][] lists = new int[words.size()][];
+    for (int i = 0; i < lists.length; i++) {
+      lists[i] = postings.getOrDefault(words.get(i), NO_POSITIONS);
+    }
+    Arrays.sort(lists, (a, b) -> Integer.compare(a.length, b.length));
+
+    int[] result = lists[0];
+    for (int i = 1; i < lists.length && result.length > 0; i++) {
+      result = intersect(result, lists[i]);
+    }
+    return result;
+  }
+
+  // Intersects two ascending lists. Each position of the shorter list is
+  // looked up in the longer one with a galloping search from the last
+  // match, which costs O(m log(n / m)) for lists of length m <= n.
+  static int[] intersect(int[] shorter, int[] longer) {
+    int[] result = new int[shorter.length];
+    int count = 0;
+    int from = 0;
+    for (int position : shorter) {
+      // Gallop forward until the step passes the position, then binary search
+      int step = 1;
+      int to = from;
+      while (to < longer.length && longer[to] < position) {
+        from = to + 1;
+        to += step;
+        step <<= 1;
+      }
+      int found = Arrays.binarySearch(longer, from, Math.min(to + 1, longer.length), position);
+      if (found >= 0) {
+        result[count++] = position;
+        from = found + 1;
+      } else {
+        from = -found - 1;
+      }
+      if (from >= longer.length) {
+        break;
+      }
+    }
+    return Arrays.copyOf(result, count);
+  }
+
+  // Merges two ascending lists, dropping duplicates
+  static int[] union(int[] a, int[] b) {
+    if (a.length == 0) {
+      return b;
+    }
+    if (b.length == 0) {
+      return a;
+    }
+    int[] result = new int[a.length + b.length];
+    int i = 0;
+    int j = 0;
+    int count = 0;
+    while (i < a.length && j < b.length) {
+      if (a[i] < b[j]) {
+        result[count++] = a[i++];
+      } else if (a[i] > b[j]) {
+        result[count++] = b[j++];
+      } else {
+        result[count++] = a[i++];
+        j++;
+      }
+    }
+    while (i < a.length) {
+      result[count++] = a[i++];
+    }
+    while (j < b.length) {
+      result[count++] = b[j++];
+    }
+    return Arrays.copyOf(result, count);
+  }
+
+  // Splits text into lower-case runs of letters and digits
+  static void tokenize(String text, List<String> tokens) {
+    if (text == null) {
+      return;
+    }
+    int start = -1;
+    for (int i = 0; i <= text.length(); i++) {
+      boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+      if (wordChar && start < 0) {
+        start = i;
+      } else if (!wordChar && start >= 0) {
+        tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+        start = -1;
+      }
+    }
+  }
+
+  // A growing postings list. Positions arrive in ascending order, so a
+  // token seen twice in one product is only added once.
+  private static final class PostingsBuilder {
+    private int[] positions = new int[4];
+    private int size;
+
+    void add(int position) {
+      if (size > 0 && positions[size - 1] == position) {
+        return;
+      }
+      if (size == positions.length) {
+        positions = Arrays.copyOf(positions, size * 2);
+      }
+      positions[size++] = position;
+    }
+
+    int[] toArray() {
+      return Arrays.copyOf(positions, size);
+    }
+  }
+}
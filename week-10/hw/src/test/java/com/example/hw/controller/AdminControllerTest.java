@@ -0,0 +1,159 @@
+package com.example.hw.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import com.example.hw.service.ProductListBean;
+
+class AdminControllerTest {
+
+  @TempDir
+  Path dir;
+
+  private Path file;
+  private ProductListBean productListBean;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    file = Files.writeString(dir.resolve("products.csv"),
+        "ID,Name,Price,Stock,Rating,Description,Review\n"
+        + "P1,Backpack,49.99,In Stock,4.6,Durable,Great\n");
+    productListBean = new ProductListBean(file.toString(), false);
+    productListBean.getLastLoad().get(10, TimeUnit.SECONDS);
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    productListBean.close();
+  }
+
+  @Test
+  void withoutATokenOnlyLoopbackClientsMayReload() {
+    AdminController controller = new AdminController(productListBean, "");
+
+    assertEquals(HttpStatus.ACCEPTED, controller.reload(request("127.0.0.1", null)).getStatusCode());
+    assertEquals(HttpStatus.ACCEPTED, controller.reload(request("::1", null)).getStatusCode());
+    assertEquals(HttpStatus.FORBIDDEN, controller.reload(request("203.0.113.7", null)).getStatusCode());
+    assertEquals(HttpStatus.FORBIDDEN, controller.reloadStatus(request("203.0.113.7", null)).getStatusCode());
+  }
+
+  @Test
+  void withATokenEveryClientMustSendIt() {
+    AdminController controller = new AdminController(productListBean, "s3cret");
+
+    assertEquals(HttpStatus.ACCEPTED, controller.reload(request("203.0.113.7", "s3cret")).getStatusCode());
+    assertEquals(HttpStatus.FORBIDDEN, controller.reload(request("127.0.0.1", null)).getStatusCode());
+    assertEquals(HttpStatus.FORBIDDEN, controller.reload(request("127.0.0.1", "s3cre")).getStatusCode());
+    assertEquals(HttpStatus.FORBIDDEN, controller.reload(request("127.0.0.1", "s3cret!")).getStatusCode());
+  }
+
+  @Test
+  void reloadPointsAtItsStatus() throws Exception {
+    AdminController controller = new AdminController(productListBean, "");
+
+    ResponseEntity<String> started = controller.reload(request("127.0.0.1", null));
+    assertEquals("/admin/reload", started.getHeaders().getFirst("Location"));
+
+    productListBean.getLastLoad().get(10, TimeUnit.SECONDS);
+    ResponseEntity<String> status = controller.reloadStatus(request("127.0.0.1", null));
+    assertEquals(HttpStatus.OK, status.getStatusCode());
+    assertTrue(status.getBody().startsWith("LOADED version "), status.getBody());
+  }
+
+  @Test
+  void failedReloadIsReported() throws Exception {
+    AdminController controller = new AdminController(productListBean, "");
+    Files.delete(file);
+
+    controller.reload(request("127.0.0.1", null));
+    productListBean.getLastLoad().handle((catalog, e) -> null).get(10, TimeUnit.SECONDS);
+
+    ResponseEntity<String> status = controller.reloadStatus(request("127.0.0.1", null));
+    assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, status.getStatusCode());
+    assertTrue(status.getBody().startsWith("FAILED "), status.getBody());
+    assertEquals(1, productListBean.getCatalog().size());
+  }
+
+  @Test
+  void readyWaitsForTheCompleteCatalog() throws Exception {
+    assertReadyDuringLoad(true, "LOADING 1000 products");
+  }
+
+  @Test
+  void readyWaitsForTheFirstLoadWithoutPartialCatalogs() throws Exception {
+    assertReadyDuringLoad(false, "LOADING 0 products");
+  }
+
+  // Loads the products through a named pipe, so the test decides when the
+  // load can finish, and checks /ready while half the rows are written
+  private void assertReadyDuringLoad(boolean partialLoad, String expected) throws Exception {
+    Path pipe = dir.resolve("pipe.csv");
+    boolean created;
+    try {
+      created = new ProcessBuilder("mkfifo", pipe.toString()).start().waitFor() == 0;
+    } catch (IOException e) {
+      created = false;
+    }
+    assumeTrue(created, "named pipes are not available");
+
+    ProductListBean bean = new ProductListBean(pipe.toString(), partialLoad);
+    try {
+      AdminController controller = new AdminController(bean, "");
+      try (OutputStream out = Files.newOutputStream(pipe)) {
+        out.write(rows(0, 1500).getBytes(StandardCharsets.UTF_8));
+        out.flush();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (partialLoad && bean.getCatalog().size() == 0 && System.nanoTime() < deadline) {
+          Thread.sleep(10);
+        }
+
+        ResponseEntity<String> ready = controller.ready();
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ready.getStatusCode());
+        assertEquals(expected, ready.getBody());
+
+        out.write(rows(1500, 2000).getBytes(StandardCharsets.UTF_8));
+      }
+      bean.getLastLoad().get(10, TimeUnit.SECONDS);
+
+      ResponseEntity<String> ready = controller.ready();
+      assertEquals(HttpStatus.OK, ready.getStatusCode());
+      assertEquals("READY 2000 products", ready.getBody());
+    } finally {
+      bean.close();
+    }
+  }
+
+  // A header, when starting at row 0, and the product rows in [from, to)
+  private static String rows(int from, int to) {
+    StringBuilder csv = new StringBuilder(from == 0 ? "ID,Name,Price,Stock,Rating,Description,Review\n" : "");
+    for (int i = from; i < to; i++) {
+      csv.append('P').append(i).append(",Product,9.99,In Stock,4.0,Sturdy,Fine\n");
+    }
+    return csv.toString();
+  }
+
+  private static MockHttpServletRequest request(String remoteAddr, String token) {
+    MockHttpServletRequest request = new MockHttpServletRequest("POST", "/admin/reload");
+    request.setRemoteAddr(remoteAddr);
+    if (token != null) {
+      request.addHeader("X-Admin-Token", token);
+    }
+    return request;
+  }
+}
@@ -0,0 +1,164 @@
+package com.example.hw.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.ui.ConcurrentModel;
+
+import com.example.hw.service.ProductCatalog;
+import com.example.hw.service.ProductListBean;
+
+class CatalogPageCacheTest {
+
+  @TempDir
+  Path dir;
+
+  private ProductListBean productListBean;
+  private CatalogPageCache cache;
+  private ProductController controller;
+
+  // Times the controller actually rendered a page
+  private final AtomicInteger renders = new AtomicInteger();
+
+  // Runs before the controller renders, to simulate a concurrent reload
+  private Runnable duringRender = () -> { };
+
+  @BeforeEach
+  void setUp() throws Exception {
+    Path file = dir.resolve("products.csv");
+    Files.writeString(file, "ID,Name,Price,Stock,Rating,Description,Review\n"
+        + "P001,Backpack,49.99,In Stock,4.6,Durable,Great\n"
+        + "P002,Mouse,79.5,Out of Stock,1.8,RGB,Meh\n");
+    productListBean = new ProductListBean(file.toString(), false);
+    productListBean.getLastLoad().get(10, TimeUnit.SECONDS);
+    cache = new CatalogPageCache(productListBean);
+    controller = new ProductController(productListBean);
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    productListBean.close();
+  }
+
+  @Test
+  void repeatRequestIsServedFromTheCache() throws Exception {
+    MockHttpServletResponse first = get("/", null, null);
+    MockHttpServletResponse second = get("/", null, null);
+
+    assertEquals(1, renders.get());
+    assertEquals(200, second.getStatus());
+    assertEquals(first.getContentAsString(), second.getContentAsString());
+    assertEquals(first.getHeader("ETag"), second.getHeader("ETag"));
+  }
+
+  @Test
+  void currentEtagGetsNotModified() throws Exception {
+    String etag = get("/", null, null).getHeader("ETag");
+
+    MockHttpServletResponse response = get("/", null, etag);
+
+    assertEquals(304, response.getStatus());
+    assertEquals(0, response.getContentAsByteArray().length);
+    assertEquals(1, renders.get());
+  }
+
+  @Test
+  void pageIsGzippedOnlyWhenAccepted() throws Exception {
+    MockHttpServletResponse identity = get("/", null, null);
+    MockHttpServletResponse gzipped = get("/", "gzip, deflate", null);
+
+    assertNull(identity.getHeader("Content-Encoding"));
+    assertEquals("gzip", gzipped.getHeader("Content-Encoding"));
+    assertEquals("Accept-Encoding", gzipped.getHeader("Vary"));
+    assertEquals(identity.getContentAsString(), gunzip(gzipped.getContentAsByteArray()));
+  }
+
+  @Test
+  void reloadInvalidatesPagesAndEtags() throws Exception {
+    MockHttpServletResponse before = get("/", null, null);
+
+    productListBean.reloadAsync().get(10, TimeUnit.SECONDS);
+    MockHttpServletResponse stale = get("/", null, before.getHeader("ETag"));
+
+    assertEquals(200, stale.getStatus());
+    assertEquals(2, renders.get());
+    assertNotEquals(before.getHeader("ETag"), stale.getHeader("ETag"));
+    assertEquals("version " + productListBean.getCatalog().getVersion() + ", 2 products",
+        stale.getContentAsString());
+  }
+
+  @Test
+  void reloadDuringRenderKeepsPageAndEtagOnOneVersion() throws Exception {
+    ProductCatalog old = productListBean.getCatalog();
+    duringRender = () -> {
+      try {
+        productListBean.reloadAsync().get(10, TimeUnit.SECONDS);
+      } catch (Exception e) {
+        throw new IllegalStateException(e);
+      }
+    };
+    MockHttpServletResponse raced = get("/", null, null);
+    duringRender = () -> { };
+
+    // The page was rendered from the catalog its ETag names
+    assertEquals("\"" + old.getVersionTag() + "\"", raced.getHeader("ETag"));
+    assertEquals("version " + old.getVersion() + ", 2 products", raced.getContentAsString());
+
+    // and the next request renders the reloaded catalog instead of reusing it
+    MockHttpServletResponse next = get("/", null, null);
+    assertEquals(2, renders.get());
+    assertEquals("version " + productListBean.getCatalog().getVersion() + ", 2 products",
+        next.getContentAsString());
+  }
+
+  // Sends a GET through the filter to a chain that renders the index page
+  // through the controller, as the view would
+  private MockHttpServletResponse get(String uri, String acceptEncoding, String ifNoneMatch)
+      throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+    if (acceptEncoding != null) {
+      request.addHeader("Accept-Encoding", acceptEncoding);
+    }
+    if (ifNoneMatch != null) {
+      request.addHeader("If-None-Match", ifNoneMatch);
+    }
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    FilterChain chain = (req, res) -> {
+      renders.incrementAndGet();
+      duringRender.run();
+      ProductCatalog pinned = (ProductCatalog) req.getAttribute(CatalogPageCache.CATALOG_ATTRIBUTE);
+      ConcurrentModel model = new ConcurrentModel();
+      controller.showIndexPage(0, 50, null, null, pinned, model);
+      res.setContentType("text/html;charset=UTF-8");
+      String page = "version " + (pinned != null ? pinned : productListBean.getCatalog()).getVersion()
+          + ", " + model.getAttribute("total") + " products";
+      res.getOutputStream().write(page.getBytes(StandardCharsets.UTF_8));
+    };
+    cache.doFilter(request, response, chain);
+    return response;
+  }
+
+  private static String gunzip(byte[] bytes) throws IOException {
+    try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+      return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    }
+  }
+}
@@ -0,0 +1,168 @@
+package com.example.hw.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ui.ConcurrentModel;
+
+import com.example.hw.model.Product;
+import com.example.hw.service.CsvLineParser;
+import com.example.hw.service.CsvLineWriter;
+import com.example.hw.service.ProductListBean;
+
+class ProductControllerTest {
+
+  @TempDir
+  Path dir;
+
+  private ProductListBean productListBean;
+  private ProductController controller;
+
+  // Twenty products P1..P20 priced 10..200; the even ones are rated 5
+  @BeforeEach
+  void setUp() throws Exception {
+    StringBuilder csv = new StringBuilder("ID,Name,Price,Stock,Rating,Description,Review\n");
+    for (int i = 1; i <= 20; i++) {
+      csv.append('P').append(i).append(",Product ").append(i).append(',').append(i * 10)
+          .append(",In Stock,").append(i % 2 == 0 ? "5.0" : "3.0").append(",Sturdy,Fine\n");
+    }
+    Path file = Files.writeString(dir.resolve("products.csv"), csv.toString());
+    productListBean = new ProductListBean(file.toString(), false);
+    productListBean.getLastLoad().get(10, TimeUnit.SECONDS);
+    controller = new ProductController(productListBean);
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    productListBean.close();
+  }
+
+  @Test
+  void indexPagesFollowTheKeysetLinks() {
+    ConcurrentModel first = index(0, null, null, 8);
+    assertEquals(List.of("P1", "P2", "P3", "P4", "P5", "P6", "P7", "P8"), ids(first));
+    assertNull(first.getAttribute("prevBefore"));
+
+    ConcurrentModel second = index(0, (String) first.getAttribute("nextAfter"), null, 8);
+    assertEquals("P9", ids(second).get(0));
+    ConcurrentModel third = index(0, (String) second.getAttribute("nextAfter"), null, 8);
+    assertEquals(List.of("P17", "P18", "P19", "P20"), ids(third));
+    assertNull(third.getAttribute("nextAfter"));
+
+    // Previous from the last page gives back the page before it
+    ConcurrentModel back = index(0, null, (String) third.getAttribute("prevBefore"), 8);
+    assertEquals(ids(second), ids(back));
+    assertEquals(ids(first), ids(index(0, null, (String) back.getAttribute("prevBefore"), 8)));
+  }
+
+  @Test
+  void indexPageNumbersAndUnknownKeysets() {
+    assertEquals(List.of("P6", "P7", "P8", "P9", "P10"), ids(index(1, null, null, 5)));
+    assertEquals(List.of(), ids(index(9, null, null, 5)));
+    assertEquals(List.of(), ids(index(0, "missing", null, 5)));
+    assertEquals(List.of(), ids(index(0, null, "missing", 5)));
+    assertEquals(List.of("P1", "P2"), ids(index(0, null, "P3", 5)));
+    assertEquals(1, ids(index(0, null, null, 0)).size());
+  }
+
+  @Test
+  void exportRoundTripsThroughTheParser() throws IOException {
+    // Fields that need quoting survive the round trip
+    Product tricky = new Product("P\"1", "Chair, oak", 1.5, "In Stock", 4.0,
+        "Says \"solid\"", "Good, \"really\" good");
+    StringWriter line = new StringWriter();
+    CsvLineWriter.write(line, tricky);
+    assertEquals(List.of("P\"1", "Chair, oak", "1.5", "In Stock", "4.0", "Says \"solid\"",
+        "Good, \"really\" good"), CsvLineParser.parse(line.toString().stripTrailing()));
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    controller.exportProducts().getBody().writeTo(out);
+    String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+
+    assertEquals(CsvLineWriter.HEADER, lines[0]);
+    List<Product> products = productListBean.getProductList();
+    assertEquals(products.size() + 1, lines.length);
+    for (int i = 0; i < products.size(); i++) {
+      Product product = products.get(i);
+      List<String> fields = CsvLineParser.parse(lines[i + 1]);
+      assertEquals(product.getId(), fields.get(0));
+      assertEquals(product.getName(), fields.get(1));
+      assertEquals(product.getPrice(), Double.parseDouble(fields.get(2)));
+      assertEquals(product.getStockStatus(), fields.get(3));
+      assertEquals(product.getRating(), Double.parseDouble(fields.get(4)));
+      assertEquals(product.getDescription(), fields.get(5));
+      assertEquals(product.getCustomerReview(), fields.get(6));
+    }
+  }
+
+  @Test
+  void filterResultsArePaged() {
+    ConcurrentModel model = filter(null, null, 0, 3);
+
+    assertEquals(List.of("P2", "P4", "P6"), ids(model));
+    assertEquals(10, model.getAttribute("total"));
+    assertNull(model.getAttribute("prevBefore"));
+    assertEquals("P6", model.getAttribute("nextAfter"));
+
+    assertEquals(List.of("P14", "P16", "P18"), ids(filter(null, null, 2, 3)));
+    assertEquals(List.of(), ids(filter(null, null, 5, 3)));
+  }
+
+  @Test
+  void filterResultsArePagedByKeyset() {
+    ConcurrentModel next = filter("P6", null, 0, 3);
+    assertEquals(List.of("P8", "P10", "P12"), ids(next));
+    assertEquals("P8", next.getAttribute("prevBefore"));
+    assertEquals("P12", next.getAttribute("nextAfter"));
+
+    ConcurrentModel previous = filter(null, "P8", 0, 3);
+    assertEquals(List.of("P2", "P4", "P6"), ids(previous));
+    assertNull(previous.getAttribute("prevBefore"));
+
+    // A keyset product that does not match the filter still marks a place
+    assertEquals(List.of("P8", "P10"), ids(filter("P7", null, 0, 2)));
+    assertEquals(List.of("P4", "P6"), ids(filter(null, "P7", 0, 2)));
+
+    ConcurrentModel last = filter("P16", null, 0, 3);
+    assertEquals(List.of("P18", "P20"), ids(last));
+    assertNull(last.getAttribute("nextAfter"));
+
+    assertEquals(List.of(), ids(filter("missing", null, 0, 3)));
+  }
+
+  private ConcurrentModel index(int page, String after, String before, int size) {
+    ConcurrentModel model = new ConcurrentModel();
+    controller.showIndexPage(page, size, after, before, null, model);
+    return model;
+  }
+
+  // Products rated 5 or more, picked by keyset or page number
+  private ConcurrentModel filter(String after, String before, int page, int size) {
+    ConcurrentModel model = new ConcurrentModel();
+    controller.showFilteredProducts(null, null, 5.0, null, page, size, after, before, model);
+    return model;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static List<String> ids(ConcurrentModel model) {
+    List<String> ids = new ArrayList<>();
+    for (Product product : (List<Product>) model.getAttribute("products")) {
+      ids.add(product.getId());
+    }
+    return ids;
+  }
+}
@@ -0,0 +1,115 @@
+package com.example.hw.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.hw.model.Product;
+
+class ProductCatalogTest {
+
+  private static final List<Product> PRODUCTS = List.of(
+      product("P1", 10.0, 4.5),
+      product("P2", 25.0, 3.0),
+      product("P3", 10.0, 2.0),
+      product("P4", 99.0, 5.0),
+      product("P2", 50.0, 1.0), // duplicate id
+      product("P6", 25.0, 4.5));
+
+  @Test
+  void findByIdUsesTheFirstProductWithAnId() {
+    ProductCatalog catalog = new ProductCatalog(PRODUCTS);
+
+    assertSame(PRODUCTS.get(0), catalog.findById("P1"));
+    assertSame(PRODUCTS.get(1), catalog.findById("P2"));
+    assertNull(catalog.findById("P5"));
+    assertNull(catalog.findById(null));
+    assertEquals(3, catalog.positionOf("P4"));
+    assertEquals(-1, catalog.positionOf("missing"));
+  }
+
+  @Test
+  void pageIsClampedToTheCatalog() {
+    ProductCatalog catalog = new ProductCatalog(PRODUCTS);
+
+    assertEquals(PRODUCTS.subList(0, 2), catalog.page(0, 2));
+    assertEquals(PRODUCTS.subList(4, 6), catalog.page(4, 10));
+    assertEquals(PRODUCTS.subList(0, 1), catalog.page(-3, 1));
+    assertTrue(catalog.page(6, 5).isEmpty());
+    assertTrue(catalog.page(2, 0).isEmpty());
+    assertTrue(catalog.page(Integer.MAX_VALUE, Integer.MAX_VALUE).isEmpty());
+  }
+
+  @Test
+  void filterBoundsAreInclusiveAndOptional() {
+    ProductCatalog catalog = new ProductCatalog(PRODUCTS);
+
+    assertEquals(ids("P1", "P2", "P3", "P6"), ids(catalog.filter(10.0, 25.0, null, null)));
+    assertEquals(ids("P1", "P4", "P6"), ids(catalog.filter(null, null, 4.5, null)));
+    assertEquals(ids("P2", "P6"), ids(catalog.filter(20.0, 30.0, 3.0, 5.0)));
+    assertEquals(PRODUCTS, catalog.filter(null, null, null, null));
+    assertTrue(catalog.filter(30.0, 20.0, null, null).isEmpty());
+    assertTrue(catalog.filter(null, null, 5.0, 4.0).isEmpty());
+  }
+
+  @Test
+  void filterMatchesALinearScan() {
+    Random random = new Random(42);
+    List<Product> products = new ArrayList<>();
+    for (int i = 0; i < 2000; i++) {
+      products.add(product("P" + i, random.nextInt(200) / 2.0, random.nextInt(51) / 10.0));
+    }
+    ProductCatalog catalog = new ProductCatalog(products);
+
+    for (int trial = 0; trial < 200; trial++) {
+      Double minPrice = random.nextBoolean() ? random.nextInt(100) * 1.0 : null;
+      Double maxPrice = random.nextBoolean() ? random.nextInt(100) * 1.0 : null;
+      Double minRating = random.nextBoolean() ? random.nextInt(6) * 1.0 : null;
+      Double maxRating = random.nextBoolean() ? random.nextInt(6) * 1.0 : null;
+      List<Product> expected = new ArrayList<>();
+      for (Product product : products) {
+        if ((minPrice == null || product.getPrice() >= minPrice)
+            && (maxPrice == null || product.getPrice() <= maxPrice)
+            && (minRating == null || product.getRating() >= minRating)
+            && (maxRating == null || product.getRating() <= maxRating)) {
+          expected.add(product);
+        }
+      }
+      assertEquals(expected, catalog.filter(minPrice, maxPrice, minRating, maxRating));
+    }
+  }
+
+  @Test
+  void versionsTellCatalogsApart() {
+    ProductCatalog first = new ProductCatalog(PRODUCTS, 1);
+    ProductCatalog second = new ProductCatalog(PRODUCTS, 2);
+
+    assertEquals(1, first.getVersion());
+    assertNotEquals(first.getVersionTag(), second.getVersionTag());
+    assertEquals(0, ProductCatalog.empty().size());
+  }
+
+  private static Product product(String id, double price, double rating) {
+    return new Product(id, "Product " + id, price, "In Stock", rating, "", "");
+  }
+
+  private static List<String> ids(String... ids) {
+    return List.of(ids);
+  }
+
+  private static List<String> ids(List<Product> products) {
+    List<String> ids = new ArrayList<>();
+    for (Product product : products) {
+      ids.add(product.getId());
+    }
+    return ids;
+  }
+}
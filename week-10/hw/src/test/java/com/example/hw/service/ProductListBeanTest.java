@@ -0,0 +1,120 @@
+package com.example.hw.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ProductListBeanTest {
+
+  private static final String HEADER = "ID,Name,Price,Stock,Rating,Description,Review\n";
+
+  @TempDir
+  Path dir;
+
+  private ProductListBean productListBean;
+
+  @AfterEach
+  void tearDown() throws IOException {
+    if (productListBean != null) {
+      productListBean.close();
+    }
+  }
+
+  @Test
+  void reloadSwapsInANewCatalog() throws Exception {
+    Path file = write("products.csv", 2);
+    productListBean = load(file);
+    ProductCatalog before = productListBean.getCatalog();
+
+    Files.writeString(file, rows(3));
+    ProductCatalog after = productListBean.reloadAsync().get(10, TimeUnit.SECONDS);
+
+    assertSame(after, productListBean.getCatalog());
+    assertEquals(3, after.size());
+    assertTrue(after.getVersion() > before.getVersion());
+    // A request that already read the old catalog keeps its whole view
+    assertEquals(2, before.size());
+    assertEquals("P2", before.findById("P2").getId());
+  }
+
+  @Test
+  void failedReloadKeepsTheCurrentCatalog() throws Exception {
+    Path file = write("products.csv", 2);
+    productListBean = load(file);
+    ProductCatalog before = productListBean.getCatalog();
+
+    Files.writeString(file, HEADER + "P9,Broken,not-a-price,In Stock,4.0,x,y\n");
+    assertThrows(ExecutionException.class,
+        () -> productListBean.reloadAsync().get(10, TimeUnit.SECONDS));
+
+    assertSame(before, productListBean.getCatalog());
+    assertTrue(productListBean.getLastLoad().isCompletedExceptionally());
+  }
+
+  @Test
+  void watcherReloadsAReplacedFile() throws Exception {
+    Path file = write("products.csv", 2);
+    productListBean = load(file);
+
+    // Replace the file with an atomic rename, as a deploy would
+    Path next = write("products.csv.tmp", 5);
+    Files.move(next, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+    assertEquals(5, awaitSize(5));
+  }
+
+  @Test
+  void watcherWaitsForAFileWrittenInPlace() throws Exception {
+    Path file = write("products.csv", 2);
+    productListBean = load(file);
+
+    // Rewrite the file in pieces, leaving a half-written row in between
+    Files.writeString(file, rows(4) + "P5,Half");
+    Thread.sleep(100);
+    Files.writeString(file, rows(5));
+
+    assertEquals(5, awaitSize(5));
+    assertFalse(productListBean.getLastLoad().isCompletedExceptionally());
+  }
+
+  private ProductListBean load(Path file) throws Exception {
+    ProductListBean bean = new ProductListBean(file.toString(), false);
+    bean.getLastLoad().get(10, TimeUnit.SECONDS);
+    return bean;
+  }
+
+  // Waits up to ten seconds for the watcher to load a catalog of a size
+  private int awaitSize(int size) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (productListBean.getCatalog().size() != size && System.nanoTime() < deadline) {
+      Thread.sleep(50);
+    }
+    return productListBean.getCatalog().size();
+  }
+
+  private Path write(String name, int rows) throws IOException {
+    return Files.writeString(dir.resolve(name), rows(rows));
+  }
+
+  private static String rows(int rows) {
+    StringBuilder csv = new StringBuilder(HEADER);
+    for (int i = 1; i <= rows; i++) {
+      csv.append('P').append(i).append(",Product ").append(i).append(',').append(i * 10)
+          .append(".5,In Stock,4.").append(i % 10).append(",Sturdy,Fine\n");
+    }
+    return csv.toString();
+  }
+}
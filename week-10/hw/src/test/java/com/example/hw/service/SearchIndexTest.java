@@ -0,0 +1,94 @@
+package com.example.hw.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.hw.model.Product;
+
+class SearchIndexTest {
+
+  private static final SearchIndex INDEX = new SearchIndex(List.of(
+      product("Wireless Mouse", "USB receiver", "Great mouse!"),
+      product("USB-C Cable", "Braided cable", "Charges fast"),
+      product("Phone Charger", "USB wall charger", "Works"),
+      product("Desk Lamp", "LED", "Bright, wireless-free"),
+      product("Gaming MOUSE", "RGB", "mouse mouse mouse")));
+
+  @Test
+  void wordsAreAndedAndCaseInsensitive() {
+    assertArrayEquals(new int[] {0, 4}, INDEX.search("mouse"));
+    assertArrayEquals(new int[] {0, 4}, INDEX.search("MoUsE"));
+    assertArrayEquals(new int[] {1}, INDEX.search("usb cable"));
+    assertArrayEquals(new int[] {0, 1, 2}, INDEX.search("usb"));
+    assertArrayEquals(new int[] {}, INDEX.search("usb lamp"));
+  }
+
+  @Test
+  void orSeparatesAlternatives() {
+    assertArrayEquals(new int[] {1, 2}, INDEX.search("usb cable OR charger"));
+    assertArrayEquals(new int[] {0, 3, 4}, INDEX.search("lamp OR mouse"));
+    // Only an upper-case OR between words is an operator
+    assertArrayEquals(new int[] {}, INDEX.search("lamp or mouse"));
+    assertArrayEquals(new int[] {0, 3}, INDEX.search("wireless OR unknown"));
+  }
+
+  @Test
+  void emptyQueriesMatchNothing() {
+    assertArrayEquals(new int[] {}, INDEX.search(null));
+    assertArrayEquals(new int[] {}, INDEX.search(""));
+    assertArrayEquals(new int[] {}, INDEX.search("  !?  "));
+    assertArrayEquals(new int[] {}, INDEX.search("OR"));
+  }
+
+  @Test
+  void tokenizerSplitsOnEverythingButLettersAndDigits() {
+    List<String> tokens = new ArrayList<>();
+    SearchIndex.tokenize("USB-C, 2x  fast!Cable", tokens);
+    assertEquals(List.of("usb", "c", "2x", "fast", "cable"), tokens);
+  }
+
+  @Test
+  void intersectAndUnionMatchSetOperations() {
+    Random random = new Random(7);
+    for (int trial = 0; trial < 500; trial++) {
+      int[] a = randomSorted(random, random.nextInt(50), 200);
+      int[] b = randomSorted(random, random.nextInt(2000), 5000);
+      TreeSet<Integer> both = set(a);
+      both.retainAll(set(b));
+      TreeSet<Integer> either = set(a);
+      either.addAll(set(b));
+
+      assertArrayEquals(toArray(both), SearchIndex.intersect(a, b), "intersect " + Arrays.toString(a));
+      assertArrayEquals(toArray(either), SearchIndex.union(a, b));
+      assertArrayEquals(toArray(either), SearchIndex.union(b, a));
+    }
+  }
+
+  private static Product product(String name, String description, String review) {
+    return new Product("P", name, 1.0, "In Stock", 4.0, description, review);
+  }
+
+  private static int[] randomSorted(Random random, int size, int bound) {
+    return random.ints(size, 0, bound).distinct().sorted().toArray();
+  }
+
+  private static TreeSet<Integer> set(int[] values) {
+    TreeSet<Integer> set = new TreeSet<>();
+    for (int value : values) {
+      set.add(value);
+    }
+    return set;
+  }
+
+  private static int[] toArray(TreeSet<Integer> set) {
+    return set.stream().mapToInt(Integer::intValue).toArray();
+  }
+}
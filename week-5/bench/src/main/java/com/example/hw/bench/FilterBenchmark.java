@@ -0,0 +1,95 @@
+package com.example.hw.bench;
+
+import com.example.hw.ProductFilter;
+import com.example.hw.ProductReader;
+import com.example.hw.ReportSpecs;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the per-row cost of the ReportSpecs predicates. One operation
+ * tests a single row, walking through the file's price, rating and name
+ * columns in order, so the score is rows per microsecond for each kind of
+ * specification. Larger files show the cost once the columns no longer
+ * fit in cache.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class FilterBenchmark {
+
+    @Param({"10000", "1000000", "10000000"})
+    public int rows;
+
+    /**
+     * ALL matches everything, PRICE and RATING set one numeric range,
+     * PREFIX and CONTAINS take the name fast paths, and REGEX needs the
+     * full regular expression engine.
+     */
+    @Param({"ALL", "PRICE", "RATING", "PREFIX", "CONTAINS", "REGEX"})
+    public String spec;
+
+    private double[] prices;
+    private double[] ratings;
+    private String[] names;
+    private ProductFilter filter;
+    private int row;
+
+    @Setup
+    public void setUp() throws IOException {
+        String filename = ProductFiles.get(rows);
+        prices = new double[rows];
+        ratings = new double[rows];
+        names = new String[rows];
+        int[] count = {0};
+        ProductReader.read(filename, p -> {
+            prices[count[0]] = p.getPrice();
+            ratings[count[0]] = p.getRating();
+            names[count[0]] = p.getName();
+            count[0]++;
+        });
+
+        ReportSpecs.Builder builder = new ReportSpecs.Builder(filename);
+        switch (spec) {
+            case "PRICE":
+                builder.minimumPrice(100).maximumPrice(400);
+                break;
+            case "RATING":
+                builder.minimumRating(4.0);
+                break;
+            case "PREFIX":
+                builder.nameRegex("Aurora.*");
+                break;
+            case "CONTAINS":
+                builder.nameRegex(".*Lamp.*");
+                break;
+            case "REGEX":
+                builder.nameRegex("(Solar|Lunar) [A-Z].*");
+                break;
+            default:
+                break;
+        }
+        filter = builder.build().getFilter();
+    }
+
+    @Benchmark
+    public boolean testRow() {
+        int r = row;
+        row = r + 1 == prices.length ? 0 : r + 1;
+        return filter.test(prices[r], ratings[r], names[r]);
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.hw.bench;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.SplittableRandom;
+
+/**
+ * Creates the synthetic product CSV files the benchmarks read.
+ * Every file is generated from a fixed seed, so the same row count always
+ * gives the same bytes, and is kept in the temporary directory so later
+ * forks and runs reuse it instead of writing it again.
+ */
+public final class ProductFiles {
+
+    private static final String[] STATUSES = {"In Stock", "Out of Stock", "Backordered", "Pre-order"};
+    private static final String[] WORDS = {
+        "Starlite", "Aurora", "Cosmic", "Lunar", "Solar", "Nebula", "Orbit", "Comet",
+        "Backpack", "Mouse", "Yoga Mat", "Lamp", "Bottle", "Headphones", "Keyboard", "Tent"
+    };
+
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private ProductFiles() {}
+
+    /**
+     * Returns the path of a synthetic product file, generating it first if
+     * it does not exist yet.
+     *
+     * @param rows The number of product rows, not counting the header.
+     * @return The path of the CSV file.
+     */
+    public static synchronized String get(int rows) {
+        Path file = Paths.get(System.getProperty("java.io.tmpdir"), "hw-bench-products-" + rows + ".csv");
+        if (Files.exists(file)) {
+            return file.toString();
+        }
+        try {
+            // Write beside the target and move it into place, so a fork that
+            // is killed halfway never leaves a truncated file behind
+            Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            write(temp, rows);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return file.toString();
+    }
+
+    private static void write(Path file, int rows) throws IOException {
+        SplittableRandom random = new SplittableRandom(42);
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("Id,Name,Price,Stock Status,Rating,Description,Customer Review\n");
+            StringBuilder line = new StringBuilder(128);
+            for (int i = 0; i < rows; i++) {
+                line.setLength(0);
+                line.append('P').append(i).append(',')
+                        .append(WORDS[random.nextInt(8)]).append(' ')
+                        .append(WORDS[8 + random.nextInt(8)]).append(',')
+                        .append(random.nextInt(100, 100_000) / 100.0).append(',')
+                        .append(STATUSES[random.nextInt(STATUSES.length)]).append(',')
+                        .append(random.nextInt(10, 51) / 10.0).append(',')
+                        .append("Synthetic product ").append(i % 997).append(',')
+                        .append("Review ").append(i % 101).append('\n');
+                out.append(line);
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.hw.bench;
+
+import com.example.hw.ProductReader;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures CSV read throughput: one operation parses every row of the file
+ * into a Product. Rows per second is ops/s times the row count.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ReadBenchmark {
+
+    @Param({"10000", "1000000", "10000000"})
+    public int rows;
+
+    private String filename;
+
+    @Setup
+    public void setUp() {
+        filename = ProductFiles.get(rows);
+    }
+
+    @Benchmark
+    public void read(Blackhole bh) throws IOException {
+        ProductReader.read(filename, bh::consume);
+    }
+}
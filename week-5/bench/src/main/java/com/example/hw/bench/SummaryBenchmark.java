@@ -0,0 +1,61 @@
+package com.example.hw.bench;
+
+import com.example.hw.ProductCatalog;
+import com.example.hw.Report;
+import com.example.hw.ReportFactory;
+import com.example.hw.ReportSpecs;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures SummaryReport aggregation. Files that fit the ProductCatalog are
+ * loaded once during warmup, so their score is the cost of aggregating
+ * the cached columns; the 10M-row file is larger than the cache and is
+ * parsed on every operation by the parallel scanner.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SummaryBenchmark {
+
+    @Param({"10000", "1000000", "10000000"})
+    public int rows;
+
+    /** ALL matches every row; RANGE keeps roughly a third of them. */
+    @Param({"ALL", "RANGE"})
+    public String spec;
+
+    private final PrintStream out = new PrintStream(OutputStream.nullOutputStream());
+    private final Report report = ReportFactory.getReport("SUMMARY");
+    private ReportSpecs specs;
+
+    @Setup
+    public void setUp() {
+        ProductCatalog.clearCache();
+        ReportSpecs.Builder builder = new ReportSpecs.Builder(ProductFiles.get(rows));
+        if (spec.equals("RANGE")) {
+            builder.minimumPrice(100).maximumPrice(700).minimumRating(2.5);
+        }
+        specs = builder.build();
+    }
+
+    @Benchmark
+    public void summary() {
+        report.generate(out, specs);
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.hw;
+
+import java.io.IOException;
+import java.io.PrintStream;
+
+/**
+ * Generates an approximate summary report in bounded memory.
+ * The average price and rating are estimated from a uniform reservoir
+ * sample of the matching rows and printed with a 95% confidence interval,
+ * and the 50th, 90th and 99th percentiles come from mergeable quantile
+ * sketches. Memory stays fixed however many rows match.
+ *
+ * Files small enough for the ProductCatalog are read in full. Larger CSV
+ * files are only sampled: a random subset of blocks totalling about
+ * {@link #SAMPLE_BYTES} is parsed in parallel, and the matching row count
+ * is scaled up by the fraction read. The interval treats the sampled rows
+ * as independent, so it can be too narrow when similar rows are clustered
+ * together in the file.
+ */
+public class ApproxSummaryReport implements StreamingReport {
+
+    /** The number of rows kept in the reservoir sample. */
+    static final int SAMPLE_CAPACITY = 10_000;
+
+    /** The accuracy parameter of the quantile sketches. */
+    static final int SKETCH_K = 200;
+
+    /** How much of an oversized CSV file is read. */
+    static final long SAMPLE_BYTES = 64L * 1024 * 1024;
+
+    /** The seed for block choice and sampling, so repeated runs agree. */
+    private static final long SEED = 0x5EEDL;
+
+    /** The normal quantile for a two-sided 95% interval. */
+    private static final double Z_95 = 1.96;
+
+    /**
+     * Generates and prints the report. A failure to read the file is
+     * printed to standard error after the partial report.
+     *
+     * @param ps          The PrintStream to write the report to.
+     * @param reportSpecs The specifications for the report.
+     */
+    @Override
+    public void generate(PrintStream ps, ReportSpecs reportSpecs) {
+        try {
+            generateChecked(ps, reportSpecs);
+        } catch (IOException e) {
+            System.err.println("Error reading file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Generates and prints the approximate summary report.
+     *
+     * @param ps          The PrintStream to write the report to.
+     * @param reportSpecs The specifications for the report.
+     * @throws IOException if the file cannot be read; the partial report
+     *                     has been printed by then.
+     */
+    @Override
+    public void generateChecked(PrintStream ps, ReportSpecs reportSpecs) throws IOException {
+        SummaryReport.printHeader(ps, "Approximate Summary Report", reportSpecs);
+
+        ProductFilter filter = reportSpecs.getFilter();
+        Sketches sketches = new Sketches(SEED);
+        double fraction = 1.0;
+        IOException failure = null;
+        try {
+            ProductCatalog.Access access = ProductCatalog.access(reportSpecs.getFilename());
+            if (access == ProductCatalog.Access.SEQUENTIAL) {
+                ProductReader.read(reportSpecs.getFilename(), filter, sketches::accept);
+            } else if (access == ProductCatalog.Access.SCAN) {
+                ParallelProductScanner.Sample<Sketches> sample = ParallelProductScanner.scanSample(
+                        reportSpecs.getFilename(), filter, SAMPLE_BYTES, SEED,
+                        // Seed each block by its offset, so the result does not depend on
+                        // the order in which the fork-join workers reach the blocks
+                        start -> new Sketches(SEED ^ start), Sketches::accept, Sketches::combine);
+                sketches = sample.getResult();
+                fraction = sample.getFraction();
+            } else {
+                ProductTable table = ProductCatalog.load(reportSpecs.getFilename()).getTable();
+                for (int row : table.select(filter)) {
+                    sketches.accept(table.getPrice(row), table.getRating(row));
+                }
+            }
+        } catch (IOException e) {
+            failure = e;
+        }
+
+        printEstimates(ps, sketches, fraction);
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Prints the report header and returns a sink that feeds each matching
+     * product into the sketches and prints the estimates when finished.
+     *
+     * @param ps          The PrintStream to write the report to.
+     * @param reportSpecs The specifications for the report.
+     * @return The sink for the report's rows.
+     */
+    @Override
+    public ReportSink open(PrintStream ps, ReportSpecs reportSpecs) {
+        SummaryReport.printHeader(ps, "Approximate Summary Report", reportSpecs);
+        Sketches sketches = new Sketches(SEED);
+        return new ReportSink() {
+            @Override
+            public void accept(Product p) {
+                sketches.accept(p);
+            }
+
+            @Override
+            public void finish() {
+                printEstimates(ps, sketches, 1.0);
+            }
+        };
+    }
+
+    /**
+     * Prints the estimated row count, averages with their intervals, and
+     * percentiles. An empty result prints 0.00 averages and n/a percentiles.
+     */
+    private static void printEstimates(PrintStream ps, Sketches sketches, double fraction) {
+        long matched = sketches.sample.getSeen();
+        long population = fraction >= 1.0 ? matched : Math.round(matched / fraction);
+        ps.printf("Rows Read      = %.1f%%%n", fraction * 100);
+        ps.printf("Matching Rows  = %d%s%n", population, fraction >= 1.0 ? "" : " (estimated)");
+        printMean(ps, "Average Price  = ", sketches.sample.getPrices(), population);
+        printMean(ps, "Average Rating = ", sketches.sample.getRatings(), population);
+        printQuantiles(ps, "Price  p50/p90/p99 = ", sketches.priceQuantiles);
+        printQuantiles(ps, "Rating p50/p90/p99 = ", sketches.ratingQuantiles);
+        ps.println("------------------------------------------\n\n");
+    }
+
+    /**
+     * Prints the sample mean with the half-width of its 95% confidence
+     * interval, using the finite population correction since the sample is
+     * drawn without replacement.
+     */
+    private static void printMean(PrintStream ps, String label, double[] values, long population) {
+        int n = values.length;
+        double mean = 0;
+        for (int i = 0; i < n; i++) {
+            mean += (values[i] - mean) / (i + 1);
+        }
+        double squares = 0;
+        for (double value : values) {
+            squares += (value - mean) * (value - mean);
+        }
+        double halfWidth = 0;
+        if (n > 1 && population > n) {
+            double standardError = Math.sqrt(squares / (n - 1) / n);
+            double correction = Math.sqrt((double) (population - n) / (population - 1));
+            halfWidth = Z_95 * standardError * correction;
+        }
+        ps.printf("%s%.2f +/- %.2f (95%% CI, n=%d)%n", label, mean, halfWidth, n);
+    }
+
+    private static void printQuantiles(PrintStream ps, String label, QuantileSketch sketch) {
+        if (sketch.getCount() == 0) {
+            ps.println(label + "n/a");
+            return;
+        }
+        ps.printf("%s%.2f / %.2f / %.2f%n", label,
+                sketch.quantile(0.50), sketch.quantile(0.90), sketch.quantile(0.99));
+    }
+
+    /**
+     * The reservoir sample and quantile sketches for the rows that pass a
+     * filter. Partial results from parallel chunks can be combined.
+     */
+    static final class Sketches {
+        final ReservoirSample sample;
+        final QuantileSketch priceQuantiles;
+        final QuantileSketch ratingQuantiles;
+
+        Sketches(long seed) {
+            this.sample = new ReservoirSample(SAMPLE_CAPACITY, seed);
+            this.priceQuantiles = new QuantileSketch(SKETCH_K, seed * 31 + 1);
+            this.ratingQuantiles = new QuantileSketch(SKETCH_K, seed * 31 + 2);
+        }
+
+        /** Folds one matching product into the sketches. */
+        void accept(Product p) {
+            accept(p.getPrice(), p.getRating());
+        }
+
+        /** Folds one matching row into the sketches. */
+        void accept(double price, double rating) {
+            sample.accept(price, rating);
+            priceQuantiles.accept(price);
+            ratingQuantiles.accept(rating);
+        }
+
+        /** Merges the sketches of a later chunk into this one. */
+        Sketches combine(Sketches other) {
+            sample.merge(other.sample);
+            priceQuantiles.merge(other.priceQuantiles);
+            ratingQuantiles.merge(other.ratingQuantiles);
+            return this;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.hw;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs reports concurrently and returns a CompletableFuture for each one.
+ * Reports run on a fixed pool of worker threads with a bounded queue, so a
+ * burst of requests is absorbed up to the queue size and anything beyond it
+ * fails fast with a RejectedExecutionException instead of piling up. Each
+ * report writes to its own in-memory buffer, and its future completes with
+ * the finished report text, or exceptionally with the IOException if the
+ * report could not read its file.
+ *
+ * Cancelling a future, or letting its timeout expire, completes it at once
+ * and interrupts the worker running the report. The report only notices at
+ * its next write, so a cancelled report may still finish reading and
+ * parsing its file on the worker before it stops and the worker moves on.
+ */
+public final class AsyncReportService implements AutoCloseable {
+
+    private static final int QUEUED_REPORTS_PER_THREAD = 16;
+
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Creates a service with one worker per available processor.
+     */
+    public AsyncReportService() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a service with the given number of workers and room for
+     * sixteen waiting reports per worker.
+     *
+     * @param threads The number of reports that run at the same time.
+     */
+    public AsyncReportService(int threads) {
+        this(threads, threads * QUEUED_REPORTS_PER_THREAD);
+    }
+
+    /**
+     * Creates a service with the given number of workers and queue size.
+     *
+     * @param threads       The number of reports that run at the same time.
+     * @param queueCapacity The number of reports that may wait for a worker.
+     */
+    public AsyncReportService(int threads, int queueCapacity) {
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new WorkerThreadFactory());
+    }
+
+    /**
+     * Starts a report with no time limit.
+     *
+     * @param request The report type and specifications.
+     * @return A future that completes with the report text.
+     * @throws IllegalArgumentException if the report type is unknown.
+     * @throws NullPointerException     if the request, its report type or
+     *                                  its specifications are null.
+     */
+    public CompletableFuture<String> submit(ReportRequest request) {
+        return submit(request, 0, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Starts a report that is cancelled if it has not finished within the
+     * timeout, counted from submission. A timed-out future completes with
+     * a TimeoutException; a queue overflow completes it with a
+     * RejectedExecutionException.
+     *
+     * @param request The report type and specifications.
+     * @param timeout The time limit, or 0 for none.
+     * @param unit    The unit of the timeout.
+     * @return A future that completes with the report text.
+     * @throws IllegalArgumentException if the report type is unknown.
+     * @throws NullPointerException     if the request, its report type or
+     *                                  its specifications are null.
+     */
+    public CompletableFuture<String> submit(ReportRequest request, long timeout, TimeUnit unit) {
+        Objects.requireNonNull(request, "request");
+        Objects.requireNonNull(request.getReportType(), "reportType");
+        Objects.requireNonNull(request.getReportSpecs(), "reportSpecs");
+        Report report = ReportFactory.getReport(request.getReportType());
+        CompletableFuture<String> future = new CompletableFuture<>();
+        FutureTask<String> task = new FutureTask<>(() -> render(report, request.getReportSpecs())) {
+            @Override
+            protected void done() {
+                if (isCancelled()) {
+                    future.cancel(false);
+                    return;
+                }
+                try {
+                    future.complete(get());
+                } catch (ExecutionException e) {
+                    future.completeExceptionally(e.getCause());
+                } catch (InterruptedException | CancellationException e) {
+                    future.completeExceptionally(e);
+                }
+            }
+        };
+        // Cancellation or a timeout on the future stops the running report
+        future.whenComplete((result, error) -> {
+            if (error != null) {
+                task.cancel(true);
+            }
+        });
+        if (timeout > 0) {
+            future.orTimeout(timeout, unit);
+        }
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Stops accepting reports and waits for the running and queued ones
+     * to finish.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                // keep waiting for the remaining reports
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Generates one report into its own buffer and returns the text.
+     *
+     * @throws IOException if the report cannot read its file.
+     */
+    private static String render(Report report, ReportSpecs reportSpecs) throws IOException {
+        ReportBuffer buffer = new ReportBuffer();
+        PrintStream ps = new PrintStream(buffer, false, Charset.defaultCharset());
+        // A read error fails the future instead of returning a partial report
+        report.generateChecked(ps, reportSpecs);
+        ps.flush();
+        return buffer.toString(Charset.defaultCharset());
+    }
+
+    /**
+     * An in-memory report sink that aborts the report once its worker has
+     * been interrupted. PrintStream swallows IOExceptions, so the abort is
+     * an unchecked CancellationException that unwinds the report.
+     */
+    private static final class ReportBuffer extends ByteArrayOutputStream {
+
+        ReportBuffer() {
+            super(8192);
+        }
+
+        @Override
+        public synchronized void write(int b) {
+            checkCancelled();
+            super.write(b);
+        }
+
+        @Override
+        public synchronized void write(byte[] b, int off, int len) {
+            checkCancelled();
+            super.write(b, off, len);
+        }
+
+        private static void checkCancelled() {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new CancellationException("Report cancelled");
+            }
+        }
+    }
+
+    /**
+     * Names the workers and makes them daemons, so an unclosed service
+     * never keeps the JVM alive.
+     */
+    private static final class WorkerThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "report-worker-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.hw;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+
+/**
+ * A Report decorator that serves repeated requests from a ReportResultCache.
+ * On a miss the wrapped report runs into a buffer, and the output is
+ * written to the caller and stored. The output is only stored if the report
+ * read its input without error and the input file has the same size and
+ * modification time after the report as before, so neither a partial report
+ * nor a file changed mid-report is ever cached.
+ */
+public class CachingReport implements Report {
+
+    private final String reportType;
+    private final Report report;
+    private final ReportResultCache cache;
+
+    /**
+     * Wraps a report with a cache.
+     *
+     * @param reportType The report type, used in the cache key.
+     * @param report     The report to run on a cache miss.
+     * @param cache      The cache to read and fill.
+     */
+    public CachingReport(String reportType, Report report, ReportResultCache cache) {
+        this.reportType = reportType;
+        this.report = report;
+        this.cache = cache;
+    }
+
+    /**
+     * Prints the cached report for these specifications, generating and
+     * caching it first if needed. A read error is printed to standard error.
+     *
+     * @param ps          The PrintStream to write the report to.
+     * @param reportSpecs The specifications for the report.
+     */
+    @Override
+    public void generate(PrintStream ps, ReportSpecs reportSpecs) {
+        try {
+            generateChecked(ps, reportSpecs);
+        } catch (IOException e) {
+            System.err.println("Error reading file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Prints the cached report for these specifications, generating and
+     * caching it first if needed. A report that fails to read its input is
+     * printed but not cached, and the failure is thrown.
+     *
+     * @param ps          The PrintStream to write the report to.
+     * @param reportSpecs The specifications for the report.
+     * @throws IOException if the wrapped report could not read its input.
+     */
+    @Override
+    public void generateChecked(PrintStream ps, ReportSpecs reportSpecs) throws IOException {
+        String key = ReportResultCache.keyFor(reportType, reportSpecs);
+        if (key == null) {
+            // The file cannot be examined, so let the report surface its own error
+            report.generateChecked(ps, reportSpecs);
+            return;
+        }
+        byte[] output = cache.get(key);
+        if (output == null) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            PrintStream out = new PrintStream(buffer);
+            IOException failure = null;
+            try {
+                report.generateChecked(out, reportSpecs);
+            } catch (IOException e) {
+                failure = e;
+            }
+            out.flush();
+            output = buffer.toByteArray();
+            if (failure != null) {
+                ps.write(output, 0, output.length);
+                ps.flush();
+                throw failure;
+            }
+            if (key.equals(ReportResultCache.keyFor(reportType, reportSpecs))) {
+                cache.put(key, output);
+            }
+        }
+        ps.write(output, 0, output.length);
+        ps.flush();
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.hw;
+
+/**
+ * Summary statistics of one numeric column of a ProductTable: the exact
+ * minimum, maximum and NaN count, and an equi-width histogram between the
+ * minimum and maximum. They are built in one pass and let a range
+ * predicate be judged without touching the column: whether it can match
+ * any row, whether it matches every row, and roughly what fraction it keeps.
+ */
+public final class ColumnStatistics {
+
+    private static final int BUCKETS = 64;
+
+    private final int count;
+    private final int nanCount;
+    private final double minimum;
+    private final double maximum;
+    private final int[] histogram = new int[BUCKETS];
+
+    /**
+     * Builds the statistics of a column.
+     *
+     * @param column The column values, indexed by row. The array is not modified.
+     */
+    public ColumnStatistics(double[] column) {
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        int nans = 0;
+        for (double value : column) {
+            if (Double.isNaN(value)) {
+                nans++;
+            } else {
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+        }
+        this.count = column.length;
+        this.nanCount = nans;
+        this.minimum = min;
+        this.maximum = max;
+        for (double value : column) {
+            if (!Double.isNaN(value)) {
+                histogram[bucket(value)]++;
+            }
+        }
+    }
+
+    /** @return The number of rows. */
+    public int getCount() { return count; }
+
+    /** @return The number of NaN values. */
+    public int getNanCount() { return nanCount; }
+
+    /** @return The smallest value, or +Infinity if there are no numbers. */
+    public double getMinimum() { return minimum; }
+
+    /** @return The largest value, or -Infinity if there are no numbers. */
+    public double getMaximum() { return maximum; }
+
+    /**
+     * Checks whether any row can lie in a closed range. A false answer is
+     * exact: no row of the column passes the range.
+     *
+     * @param low  The inclusive lower bound.
+     * @param high The inclusive upper bound.
+     * @return false if no value of the column lies in [low, high].
+     */
+    public boolean canMatch(double low, double high) {
+        return count > nanCount && low <= high && low <= maximum && high >= minimum;
+    }
+
+    /**
+     * Checks whether every row lies in a closed range, so testing the range
+     * can be skipped. A NaN never passes a range, so any NaN makes this false.
+     *
+     * @param low  The inclusive lower bound.
+     * @param high The inclusive upper bound.
+     * @return true if every value of the column lies in [low, high].
+     */
+    public boolean matchesAll(double low, double high) {
+        return nanCount == 0 && low <= minimum && high >= maximum;
+    }
+
+    /**
+     * Estimates the fraction of rows in a closed range, assuming values are
+     * spread evenly within each histogram bucket.
+     *
+     * @param low  The inclusive lower bound.
+     * @param high The inclusive upper bound.
+     * @return An estimate between 0 and 1, exactly 0 or 1 when the range
+     *         provably matches no rows or all of them.
+     */
+    public double estimateFraction(double low, double high) {
+        if (!canMatch(low, high)) {
+            return 0.0;
+        }
+        if (matchesAll(low, high)) {
+            return 1.0;
+        }
+        double from = Math.max(low, minimum);
+        double to = Math.min(high, maximum);
+        if (minimum == maximum) {
+            return (double) (count - nanCount) / count; // every number lies in the range
+        }
+        double width = (maximum - minimum) / BUCKETS;
+        if (Double.isInfinite(width)) {
+            return 0.5; // infinite values leave no usable buckets
+        }
+        double rows = 0;
+        for (int b = bucket(from); b <= bucket(to); b++) {
+            double bucketLow = minimum + b * width;
+            double bucketHigh = b == BUCKETS - 1 ? maximum : bucketLow + width;
+            double overlap = Math.min(to, bucketHigh) - Math.max(from, bucketLow);
+            double share = Math.max(0.0, Math.min(1.0, overlap / width));
+            rows += histogram[b] * share;
+        }
+        // A range that touches any value keeps at least a sliver of rows
+        return Math.max(rows / count, 1.0 / count);
+    }
+
+    private int bucket(double value) {
+        if (maximum <= minimum) {
+            return 0;
+        }
+        int b = (int) ((value - minimum) / (maximum - minimum) * BUCKETS);
+        return Math.max(0, Math.min(BUCKETS - 1, b));
+    }
+}
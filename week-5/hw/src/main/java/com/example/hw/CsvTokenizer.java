@@ -0,0 +1,186 @@
+package com.example.hw;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * Splits one CSV line held in a byte array into fields without allocating.
+ * Fields are recorded as offsets into the caller's array; a String is only
+ * created when {@link #getString(int)} is called, and numeric fields can be
+ * parsed straight from the bytes with {@link #getDouble(int)}. The same
+ * tokenizer is reused for every line of a file.
+ *
+ * Fields may be quoted as in RFC 4180: a field that starts with a double
+ * quote runs to the matching closing quote, may contain commas, and writes
+ * a literal quote as two quotes. Quoted fields cannot span lines. Unquoted
+ * fields are taken exactly as written, as String.split(",") would.
+ */
+public final class CsvTokenizer {
+
+    /** The largest mantissa a double holds exactly, 2^53. */
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    /** Integral mantissas below 10^18 never overflow a long. */
+    private static final int MAX_FAST_DIGITS = 18;
+
+    /** The powers of ten that a double represents exactly. */
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final Charset charset;
+    private byte[] line;
+    private int[] starts = new int[8];
+    private int[] ends = new int[8];
+    private boolean[] escaped = new boolean[8];
+    private int fieldCount;
+
+    /**
+     * Creates a tokenizer that decodes fields with the given charset.
+     * The charset must encode ',' and '"' as the single ASCII bytes, as
+     * UTF-8 and the ISO-8859 family do.
+     *
+     * @param charset The charset of the file being read.
+     */
+    public CsvTokenizer(Charset charset) {
+        this.charset = charset;
+    }
+
+    /**
+     * Splits a line into fields. The array is kept, not copied, so it must
+     * not change while the fields are being read.
+     *
+     * @param bytes The buffer holding the line.
+     * @param from  The offset of the first byte of the line.
+     * @param to    The offset just past the last byte, excluding the line terminator.
+     * @return The number of fields in the line.
+     */
+    public int tokenize(byte[] bytes, int from, int to) {
+        this.line = bytes;
+        fieldCount = 0;
+        int i = from;
+        while (true) {
+            if (fieldCount == starts.length) {
+                grow();
+            }
+            boolean hasEscapes = false;
+            int start;
+            int end;
+            if (i < to && bytes[i] == '"') {
+                start = ++i;
+                // Find the closing quote, stepping over doubled quotes
+                while (i < to && (bytes[i] != '"' || (i + 1 < to && bytes[i + 1] == '"'))) {
+                    if (bytes[i] == '"') {
+                        hasEscapes = true;
+                        i++;
+                    }
+                    i++;
+                }
+                end = i;
+                // Ignore anything between the closing quote and the next comma
+                while (i < to && bytes[i] != ',') {
+                    i++;
+                }
+            } else {
+                start = i;
+                while (i < to && bytes[i] != ',') {
+                    i++;
+                }
+                end = i;
+            }
+            starts[fieldCount] = start;
+            ends[fieldCount] = end;
+            escaped[fieldCount] = hasEscapes;
+            fieldCount++;
+            if (i >= to) {
+                return fieldCount;
+            }
+            i++; // step over the comma
+        }
+    }
+
+    /** @return The number of fields in the current line. */
+    public int getFieldCount() { return fieldCount; }
+
+    /**
+     * Decodes a field into a String, turning doubled quotes back into one.
+     *
+     * @param field The zero-based field number.
+     * @return The field's text.
+     */
+    public String getString(int field) {
+        int start = starts[field];
+        int end = ends[field];
+        if (!escaped[field]) {
+            return new String(line, start, end - start, charset);
+        }
+        ByteArrayOutputStream unescaped = new ByteArrayOutputStream(end - start);
+        for (int i = start; i < end; i++) {
+            unescaped.write(line[i]);
+            if (line[i] == '"') {
+                i++; // skip the second quote of the pair
+            }
+        }
+        return new String(unescaped.toByteArray(), charset);
+    }
+
+    /**
+     * Parses a field as a double, giving exactly the result of
+     * Double.parseDouble. Plain decimals such as "49.99" or "-3" with at
+     * most 18 digits are converted directly from the bytes: the digits form
+     * an exact integer mantissa and one division by an exact power of ten
+     * is correctly rounded. Anything else, including exponents, whitespace
+     * and longer numbers, falls back to Double.parseDouble.
+     *
+     * @param field The zero-based field number.
+     * @return The parsed value.
+     * @throws NumberFormatException if the field is not a number.
+     */
+    public double getDouble(int field) {
+        int i = starts[field];
+        int end = ends[field];
+        boolean negative = false;
+        if (i < end && (line[i] == '-' || line[i] == '+')) {
+            negative = line[i] == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean seenPoint = false;
+        for (; i < end; i++) {
+            int b = line[i];
+            if (b >= '0' && b <= '9') {
+                if (++digits > MAX_FAST_DIGITS) {
+                    return parseSlow(field);
+                }
+                mantissa = mantissa * 10 + (b - '0');
+                if (seenPoint) {
+                    scale++;
+                }
+            } else if (b == '.' && !seenPoint) {
+                seenPoint = true;
+            } else {
+                return parseSlow(field);
+            }
+        }
+        if (digits == 0 || mantissa > MAX_EXACT_MANTISSA || scale >= POWERS_OF_TEN.length) {
+            return parseSlow(field);
+        }
+        double value = scale == 0 ? mantissa : mantissa / POWERS_OF_TEN[scale];
+        return negative ? -value : value;
+    }
+
+    private double parseSlow(int field) {
+        return Double.parseDouble(getString(field));
+    }
+
+    private void grow() {
+        int length = starts.length * 2;
+        starts = Arrays.copyOf(starts, length);
+        ends = Arrays.copyOf(ends, length);
+        escaped = Arrays.copyOf(escaped, length);
+    }
+}
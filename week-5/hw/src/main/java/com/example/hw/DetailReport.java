@@ -1,103 +1,167 @@
-import java.io.BufferedReader;
-import java.io.FileReader;
+package com.example.hw;
+
 import java.io.IOException;
 import java.io.PrintStream;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
 
 /**
  * Generates a detailed report of products that match specific criteria.
- * This class implements the Report interface.
+ * This class implements the StreamingReport interface, so it can also be
+ * fed rows by a shared batch scan.
  */
-public class DetailReport implements Report {
+public class DetailReport implements StreamingReport {
 
     /**
      * Generates and prints a detailed report.
-     * It reads product data, then uses a Java Stream to filter the products
-     * based on the criteria in reportSpecs, and finally prints the formatted
-     * details of the filtered products.
+     * Rows that match the criteria in reportSpecs are found through the
+     * shared ProductCatalog and printed one at a time, in file order.
      *
      * @param ps          The PrintStream to write the report to.
      * @param reportSpecs The specifications for the report.
      */
     @Override
     public void generate(PrintStream ps, ReportSpecs reportSpecs) {
-        printHeader(ps, reportSpecs);
-        List<Product> products = readProductsFromFile(reportSpecs.getFilename());
+        try {
+            generateChecked(ps, reportSpecs);
+        } catch (IOException e) {
+            System.err.println("Error reading file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Generates and prints a detailed report like
+     * {@link #generate(PrintStream, ReportSpecs)}, but throws read errors.
+     *
+     * @param ps          The PrintStream to write the report to.
+     * @param reportSpecs The specifications for the report.
+     * @throws IOException if the file cannot be read; the rows read before
+     *                     the failure and the footer have been printed by then.
+     */
+    @Override
+    public void generateChecked(PrintStream ps, ReportSpecs reportSpecs) throws IOException {
+        ReportSink sink = open(ps, reportSpecs);
+        IOException failure = null;
+        try {
+            ProductCatalog.read(reportSpecs.getFilename(), reportSpecs.getFilter(), sink::accept);
+        } catch (IOException e) {
+            failure = e;
+        }
+        sink.finish();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Generates a detailed report and writes it straight to a FileChannel,
+     * encoded with the platform charset, without going through a PrintStream.
+     *
+     * @param channel     The channel to write the report to.
+     * @param reportSpecs The specifications for the report.
+     * @throws IOException if writing to the channel fails.
+     */
+    public void generate(FileChannel channel, ReportSpecs reportSpecs) throws IOException {
+        try {
+            ReportSink sink = open(new ReportWriter(channel), reportSpecs);
+            ProductCatalog.forEach(reportSpecs.getFilename(), reportSpecs.getFilter(), sink::accept);
+            sink.finish();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Prints the report and table headers and returns a sink that prints
+     * each matching product as a table row.
+     *
+     * @param ps          The PrintStream to write the report to.
+     * @param reportSpecs The specifications for the report.
+     * @return The sink for the report's rows.
+     */
+    @Override
+    public ReportSink open(PrintStream ps, ReportSpecs reportSpecs) {
+        return open(new ReportWriter(ps), reportSpecs);
+    }
 
-        // Use a Java Stream to filter products based on the report specifications.
-        List<Product> filteredProducts = products.stream()
-                .filter(p -> p.getPrice() <= reportSpecs.getMaximumPrice())
-                .filter(p -> p.getPrice() >= reportSpecs.getMinimumPrice())
-                .filter(p -> p.getRating() <= reportSpecs.getMaximumRating())
-                .filter(p -> p.getRating() >= reportSpecs.getMinimumRating())
-                .filter(p -> p.getName().matches(reportSpecs.getNameRegex()))
-                .collect(Collectors.toList());
+    /**
+     * Writes the headers and returns a sink that formats each row by hand
+     * through the ReportWriter. The text is identical to the printf pattern
+     * "%-5s %-32s %-10.2f %-12s %-8.2f %-35s %s%n".
+     */
+    private ReportSink open(ReportWriter out, ReportSpecs reportSpecs) {
+        printHeader(out, reportSpecs);
+
+        printTableHeader(out);
 
-        // Print the table header
-        ps.printf("%-5s %-32s %-10s %-12s %-8s %-35s %s%n",
-                "Id", "Name", "Price", "Status", "Rating", "Description", "Review");
-        ps.println("-".repeat(150));
+        return new ReportSink() {
+            @Override
+            public void accept(Product p) {
+                printRow(out, p);
+            }
 
-        // Print each filtered product
-        filteredProducts.forEach(p -> ps.printf("%-5s %-32s %-10.2f %-12s %-8.2f %-35s %s%n",
-                p.getId(),
-                p.getName(),
-                p.getPrice(),
-                p.getStockStatus(),
-                p.getRating(),
-                p.getDescription(),
-                p.getCustomerReview()));
-        ps.println("\n");
+            @Override
+            public void finish() {
+                out.text("\n").newLine();
+                out.flush();
+            }
+        };
     }
 
     /**
      * Prints the header information for the report.
-     * @param ps The PrintStream to write to.
+     * @param out The ReportWriter to write to.
      * @param spec The report specifications.
      */
-    private void printHeader(PrintStream ps, ReportSpecs spec) {
-        ps.println("Detail Report");
-        ps.println("------------------------------------------");
-        ps.printf("Filename    : %s%n", spec.getFilename());
-        ps.printf("Price Max   : %.2f%n", spec.getMaximumPrice());
-        ps.printf("Price Min   : %.2f%n", spec.getMinimumPrice());
-        ps.printf("Rating Max  : %.2f%n", spec.getMaximumRating());
-        ps.printf("Rating Min  : %.2f%n", spec.getMinimumRating());
-        ps.printf("Name Regex  : %s%n", spec.getNameRegex());
-        ps.println("------------------------------------------\n");
+    private void printHeader(ReportWriter out, ReportSpecs spec) {
+        printSpecs(out, "Detail Report", spec);
+        out.text("------------------------------------------\n").newLine();
     }
 
     /**
-     * Reads product data from a CSV file.
-     * Assumes a comma-separated format with a header line to be skipped.
-     *
-     * @param filename The path to the CSV file.
-     * @return A list of Product objects.
+     * Prints a report title and the filter settings of the specifications.
+     * @param out The ReportWriter to write to.
+     * @param title The report title.
+     * @param spec The report specifications.
      */
-    private List<Product> readProductsFromFile(String filename) {
-        List<Product> products = new ArrayList<>();
-        try (BufferedReader br = new BufferedReader(new FileReader(filename))) {
-            // Skip the header line
-            br.readLine();
-            String line;
-            while ((line = br.readLine()) != null) {
-                String[] values = line.split(",");
-                Product product = new Product(
-                        values[0],                      // id
-                        values[1],                      // name
-                        Double.parseDouble(values[2]),  // price
-                        values[3],                      // stockStatus
-                        Double.parseDouble(values[4]),  // rating
-                        values[5],                      // description
-                        values[6]                       // customerReview
-                );
-                products.add(product);
-            }
-        } catch (IOException e) {
-            System.err.println("Error reading file: " + e.getMessage());
-        }
-        return products;
+    static void printSpecs(ReportWriter out, String title, ReportSpecs spec) {
+        out.text(title).newLine();
+        out.text("------------------------------------------").newLine();
+        out.text("Filename    : ").text(spec.getFilename()).newLine();
+        out.text("Price Max   : ").fixed2(spec.getMaximumPrice()).newLine();
+        out.text("Price Min   : ").fixed2(spec.getMinimumPrice()).newLine();
+        out.text("Rating Max  : ").fixed2(spec.getMaximumRating()).newLine();
+        out.text("Rating Min  : ").fixed2(spec.getMinimumRating()).newLine();
+        out.text("Name Regex  : ").text(spec.getNameRegex()).newLine();
+    }
+
+    /**
+     * Prints the column headings of the product table.
+     * @param out The ReportWriter to write to.
+     */
+    static void printTableHeader(ReportWriter out) {
+        out.padded("Id", 5).space()
+                .padded("Name", 32).space()
+                .padded("Price", 10).space()
+                .padded("Status", 12).space()
+                .padded("Rating", 8).space()
+                .padded("Description", 35).space()
+                .text("Review").newLine();
+        out.text("-".repeat(150)).newLine();
+    }
+
+    /**
+     * Prints one product as a table row.
+     * @param out The ReportWriter to write to.
+     * @param p The product to print.
+     */
+    static void printRow(ReportWriter out, Product p) {
+        out.padded(p.getId(), 5).space()
+                .padded(p.getName(), 32).space()
+                .fixed2(p.getPrice(), 10).space()
+                .padded(p.getStockStatus(), 12).space()
+                .fixed2(p.getRating(), 8).space()
+                .padded(p.getDescription(), 35).space()
+                .text(p.getCustomerReview()).newLine();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,317 @@
+package com.example.hw;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.DoubleSummaryStatistics;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * A summary report for append-only product files that grow over time.
+ * For every ReportSpecs it remembers how far into the file it has read and
+ * the running price and rating statistics so far. Each call to generate
+ * only parses the lines appended since the previous call, then prints the
+ * same output as SummaryReport.
+ *
+ * The state can be checkpointed to a properties file, so a restarted
+ * process resumes from the saved offsets instead of rereading the file.
+ * Only complete lines are consumed; a partially written last line is left
+ * for the next refresh. Lines end at "\n", "\r" or "\r\n", as in
+ * ProductReader; a line consumed at a final '\r' remembers it, so a '\n'
+ * appended later is taken as the rest of that line end. If the file shrinks, it is assumed to have been
+ * replaced and its state is rebuilt from the start.
+ *
+ * The running sums are compensated the same way as DoubleSummaryStatistics,
+ * and the checkpoint keeps the compensation as well as the sum, so averages
+ * after a restart are identical to those of a single uninterrupted run.
+ */
+public class FollowingSummaryReport implements Report {
+
+    private static final int READ_BUFFER_BYTES = 1 << 20;
+
+    private final Map<String, FollowState> states = new HashMap<>();
+    private final Path checkpointFile;
+
+    /**
+     * Creates a follow-mode report that keeps its state in memory only.
+     */
+    public FollowingSummaryReport() {
+        this.checkpointFile = null;
+    }
+
+    /**
+     * Creates a follow-mode report that saves its state to the given file
+     * after every refresh, resuming from it if it already exists.
+     *
+     * @param checkpointFile The properties file holding the saved state.
+     * @throws IOException if an existing checkpoint cannot be read.
+     */
+    public FollowingSummaryReport(String checkpointFile) throws IOException {
+        this.checkpointFile = Paths.get(checkpointFile);
+        if (Files.exists(this.checkpointFile)) {
+            restore();
+        }
+    }
+
+    /**
+     * Reads any lines appended since the last call for these specifications,
+     * updates the running averages and prints the summary report.
+     *
+     * @param ps          The PrintStream to write the report to.
+     * @param reportSpecs The specifications for the report.
+     */
+    @Override
+    public void generate(PrintStream ps, ReportSpecs reportSpecs) {
+        try {
+            generateChecked(ps, reportSpecs);
+        } catch (IOException e) {
+            System.err.println("Error reading file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Updates and prints the summary report like
+     * {@link #generate(PrintStream, ReportSpecs)}, but throws read errors.
+     *
+     * @param ps          The PrintStream to write the report to.
+     * @param reportSpecs The specifications for the report.
+     * @throws IOException if the file or checkpoint cannot be read or
+     *                     written; the averages so far have been printed by then.
+     */
+    @Override
+    public void generateChecked(PrintStream ps, ReportSpecs reportSpecs) throws IOException {
+        SummaryReport.printHeader(ps, reportSpecs);
+        FollowState state = states.computeIfAbsent(reportSpecs.toCanonicalString(), k -> new FollowState());
+        IOException failure = null;
+        try {
+            refresh(reportSpecs, state);
+            if (checkpointFile != null) {
+                checkpoint();
+            }
+        } catch (IOException e) {
+            failure = e;
+        }
+        SummaryReport.printAverages(ps, state.priceStats.toStatistics(), state.ratingStats.toStatistics());
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Returns the byte offset up to which a spec's file has been consumed.
+     *
+     * @param reportSpecs The specifications for the report.
+     * @return The offset, or 0 if the spec has not been refreshed yet.
+     */
+    public long getOffset(ReportSpecs reportSpecs) {
+        FollowState state = states.get(reportSpecs.toCanonicalString());
+        return state == null ? 0 : state.offset;
+    }
+
+    /**
+     * Parses the complete lines between the saved offset and the end of the
+     * file and folds the matching rows into the state.
+     */
+    private void refresh(ReportSpecs reportSpecs, FollowState state) throws IOException {
+        if (ProductSnapshot.isSnapshot(reportSpecs.getFilename())
+                || ParallelGzipInputStream.isCompressed(reportSpecs.getFilename())) {
+            throw new IOException("Follow mode needs an append-only CSV file: " + reportSpecs.getFilename());
+        }
+        ProductFilter filter = reportSpecs.getFilter();
+        CsvTokenizer row = new CsvTokenizer(Charset.defaultCharset());
+        try (FileChannel channel = FileChannel.open(Paths.get(reportSpecs.getFilename()), StandardOpenOption.READ)) {
+            if (channel.size() < state.offset) {
+                state.reset();
+            }
+            channel.position(state.offset);
+
+            ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_BYTES);
+            byte[] line = new byte[256];
+            int length = 0;
+            long lineStart = state.offset;
+            long position = state.offset;
+            while (channel.read(buffer) > 0) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    byte b = buffer.get();
+                    position++;
+                    if (state.skipLineFeed) {
+                        state.skipLineFeed = false;
+                        if (b == '\n') {
+                            // The second half of a "\r\n" line end
+                            lineStart = position;
+                            state.offset = position;
+                            continue;
+                        }
+                    }
+                    if (b != '\n' && b != '\r') {
+                        if (length == line.length) {
+                            line = Arrays.copyOf(line, length * 2);
+                        }
+                        line[length++] = b;
+                        continue;
+                    }
+                    // The first line of the file is the header and is skipped
+                    if (lineStart > 0) {
+                        row.tokenize(line, 0, length);
+                        Product p = ProductReader.parseRow(row, filter);
+                        if (p != null) {
+                            state.priceStats.accept(p.getPrice());
+                            state.ratingStats.accept(p.getRating());
+                        }
+                    }
+                    length = 0;
+                    lineStart = position;
+                    state.offset = position;
+                    state.skipLineFeed = b == '\r';
+                }
+                buffer.clear();
+            }
+        }
+    }
+
+    /**
+     * Writes the state of every followed spec to the checkpoint file.
+     * The file is replaced atomically, so a crash never leaves it half written.
+     *
+     * @throws IOException if the checkpoint cannot be written.
+     */
+    public void checkpoint() throws IOException {
+        if (checkpointFile == null) {
+            throw new IllegalStateException("No checkpoint file configured");
+        }
+        Properties properties = new Properties();
+        int index = 0;
+        for (Map.Entry<String, FollowState> entry : states.entrySet()) {
+            String prefix = "spec." + index++ + ".";
+            FollowState state = entry.getValue();
+            properties.setProperty(prefix + "key", entry.getKey());
+            properties.setProperty(prefix + "offset", Long.toString(state.offset));
+            properties.setProperty(prefix + "skipLineFeed", Boolean.toString(state.skipLineFeed));
+            putStats(properties, prefix + "price.", state.priceStats);
+            putStats(properties, prefix + "rating.", state.ratingStats);
+        }
+        properties.setProperty("count", Integer.toString(index));
+
+        Path parent = checkpointFile.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(parent, checkpointFile.getFileName().toString(), ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            properties.store(out, "FollowingSummaryReport checkpoint");
+        }
+        Files.move(temp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Loads the state saved by {@link #checkpoint()}.
+     */
+    private void restore() throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(checkpointFile)) {
+            properties.load(in);
+        }
+        int count = Integer.parseInt(properties.getProperty("count", "0"));
+        for (int index = 0; index < count; index++) {
+            String prefix = "spec." + index + ".";
+            FollowState state = new FollowState();
+            state.offset = Long.parseLong(properties.getProperty(prefix + "offset"));
+            state.skipLineFeed = Boolean.parseBoolean(properties.getProperty(prefix + "skipLineFeed"));
+            state.priceStats = getStats(properties, prefix + "price.");
+            state.ratingStats = getStats(properties, prefix + "rating.");
+            states.put(properties.getProperty(prefix + "key"), state);
+        }
+    }
+
+    private static void putStats(Properties properties, String prefix, FollowStats stats) {
+        properties.setProperty(prefix + "count", Long.toString(stats.count));
+        properties.setProperty(prefix + "sum", Double.toString(stats.sum));
+        properties.setProperty(prefix + "compensation", Double.toString(stats.sumCompensation));
+        properties.setProperty(prefix + "simpleSum", Double.toString(stats.simpleSum));
+        properties.setProperty(prefix + "min", Double.toString(stats.min));
+        properties.setProperty(prefix + "max", Double.toString(stats.max));
+    }
+
+    private static FollowStats getStats(Properties properties, String prefix) {
+        FollowStats stats = new FollowStats();
+        stats.count = Long.parseLong(properties.getProperty(prefix + "count"));
+        if (stats.count == 0) {
+            return stats;
+        }
+        stats.sum = Double.parseDouble(properties.getProperty(prefix + "sum"));
+        // Checkpoints written before the compensation was saved have none
+        stats.sumCompensation = Double.parseDouble(properties.getProperty(prefix + "compensation", "0"));
+        stats.simpleSum = Double.parseDouble(properties.getProperty(prefix + "simpleSum",
+                properties.getProperty(prefix + "sum")));
+        stats.min = Double.parseDouble(properties.getProperty(prefix + "min"));
+        stats.max = Double.parseDouble(properties.getProperty(prefix + "max"));
+        return stats;
+    }
+
+    /**
+     * The read position and running totals for one ReportSpecs.
+     */
+    private static final class FollowState {
+        long offset;
+        boolean skipLineFeed; // The last line consumed ended at a '\r'
+        FollowStats priceStats = new FollowStats();
+        FollowStats ratingStats = new FollowStats();
+
+        void reset() {
+            offset = 0;
+            skipLineFeed = false;
+            priceStats = new FollowStats();
+            ratingStats = new FollowStats();
+        }
+    }
+
+    /**
+     * Running statistics that can be saved and restored exactly.
+     * DoubleSummaryStatistics keeps the low-order bits of its Kahan sum
+     * private, and one restored from a plain sum starts over without them,
+     * so the averages would drift from a single uninterrupted run. This
+     * class sums the same way but exposes every field to the checkpoint.
+     */
+    private static final class FollowStats {
+        long count;
+        double sum;
+        double sumCompensation; // Low order bits of sum
+        double simpleSum; // Used for the sum of non-finite inputs
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+
+        void accept(double value) {
+            count++;
+            simpleSum += value;
+            // Kahan summation, as in DoubleSummaryStatistics
+            double tmp = value - sumCompensation;
+            double velvel = sum + tmp;
+            sumCompensation = (velvel - sum) - tmp;
+            sum = velvel;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+
+        /** @return The statistics in the form SummaryReport prints. */
+        DoubleSummaryStatistics toStatistics() {
+            if (count == 0) {
+                return new DoubleSummaryStatistics();
+            }
+            double total = sum - sumCompensation;
+            if (Double.isNaN(total) && Double.isInfinite(simpleSum)) {
+                total = simpleSum;
+            }
+            return new DoubleSummaryStatistics(count, min, max, total);
+        }
+    }
+}
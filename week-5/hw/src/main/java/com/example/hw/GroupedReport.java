@@ -0,0 +1,202 @@
+package com.example.hw;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.DoubleSummaryStatistics;
+import java.util.stream.IntStream;
+
+/**
+ * Generates a report that breaks the matching rows down by stock status:
+ * the row count, the average, minimum and maximum price, and the average
+ * rating of every status. Groups are printed in alphabetical order.
+ *
+ * Each group is one slot in a pair of DoubleSummaryStatistics arrays,
+ * indexed by the status's dictionary code, so aggregating a row is two
+ * compensated updates with no map lookup or boxing. Streamed rows find
+ * their slot by comparing their interned status by identity. Partial
+ * results are built in parallel and merged by status name.
+ */
+public class GroupedReport implements StreamingReport {
+
+    /**
+     * Generates and prints the report. A failure to read the file is
+     * printed to standard error after the partial report.
+     *
+     * @param ps          The PrintStream to write the report to.
+     * @param reportSpecs The specifications for the report.
+     */
+    @Override
+    public void generate(PrintStream ps, ReportSpecs reportSpecs) {
+        try {
+            generateChecked(ps, reportSpecs);
+        } catch (IOException e) {
+            System.err.println("Error reading file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Generates and prints the grouped report.
+     * Cached files are aggregated in parallel straight from the table's
+     * primitive columns and its status codes. Files too large to cache are
+     * parsed and aggregated in parallel chunks.
+     *
+     * @param ps          The PrintStream to write the report to.
+     * @param reportSpecs The specifications for the report.
+     * @throws IOException if the file cannot be read; the partial report
+     *                     has been printed by then.
+     */
+    @Override
+    public void generateChecked(PrintStream ps, ReportSpecs reportSpecs) throws IOException {
+        SummaryReport.printHeader(ps, "Grouped Report", reportSpecs);
+
+        ProductFilter filter = reportSpecs.getFilter();
+        Groups groups = new Groups();
+        IOException failure = null;
+        try {
+            // The table's status codes are used as group codes directly
+            groups = ProductCatalog.aggregate(reportSpecs.getFilename(), filter, Groups::new,
+                    Groups::accept, Groups::combine, (table, rows) -> {
+                        String[] dictionary = table.getStatusDictionary();
+                        return IntStream.of(rows).parallel().collect(
+                                () -> new Groups(dictionary),
+                                (g, row) -> g.add(table.getStatusCode(row), table.getPrice(row),
+                                        table.getRating(row)),
+                                Groups::combine);
+                    });
+        } catch (IOException e) {
+            failure = e;
+        }
+
+        printGroups(ps, groups);
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Prints the report header and returns a sink that aggregates each
+     * matching product and prints the groups when finished.
+     *
+     * @param ps          The PrintStream to write the report to.
+     * @param reportSpecs The specifications for the report.
+     * @return The sink for the report's rows.
+     */
+    @Override
+    public ReportSink open(PrintStream ps, ReportSpecs reportSpecs) {
+        SummaryReport.printHeader(ps, "Grouped Report", reportSpecs);
+        Groups groups = new Groups();
+        return new ReportSink() {
+            @Override
+            public void accept(Product p) {
+                groups.accept(p);
+            }
+
+            @Override
+            public void finish() {
+                printGroups(ps, groups);
+            }
+        };
+    }
+
+    /**
+     * Prints one line per non-empty group, in alphabetical order of status.
+     */
+    private static void printGroups(PrintStream ps, Groups groups) {
+        ps.printf("%-14s %10s %10s %10s %10s %10s%n",
+                "Status", "Count", "Avg Price", "Min Price", "Max Price", "Avg Rating");
+        ps.println("-".repeat(69));
+        Integer[] order = new Integer[groups.size];
+        for (int code = 0; code < order.length; code++) {
+            order[code] = code;
+        }
+        Arrays.sort(order, (a, b) -> groups.names[a].compareTo(groups.names[b]));
+        for (int code : order) {
+            DoubleSummaryStatistics prices = groups.prices[code];
+            if (prices.getCount() == 0) {
+                continue;
+            }
+            ps.printf("%-14s %10d %10.2f %10.2f %10.2f %10.2f%n", groups.names[code], prices.getCount(),
+                    prices.getAverage(), prices.getMin(), prices.getMax(),
+                    groups.ratings[code].getAverage());
+        }
+        ps.println("------------------------------------------\n\n");
+    }
+
+    /**
+     * Per-status statistics held in parallel arrays, one slot per
+     * dictionary code. Codes are local to one instance; combining two
+     * instances matches their groups by status name.
+     */
+    static final class Groups {
+        String[] names = new String[4];
+        DoubleSummaryStatistics[] prices = new DoubleSummaryStatistics[4];
+        DoubleSummaryStatistics[] ratings = new DoubleSummaryStatistics[4];
+        int size;
+
+        /** Creates empty totals that assign codes as statuses appear. */
+        Groups() {}
+
+        /**
+         * Creates empty totals whose codes follow an existing dictionary,
+         * so rows can be added by the dictionary's codes.
+         */
+        Groups(String[] dictionary) {
+            for (String status : dictionary) {
+                code(status);
+            }
+        }
+
+        /** Adds one matching product to its status group. */
+        void accept(Product p) {
+            add(code(p.getStockStatus()), p.getPrice(), p.getRating());
+        }
+
+        /** Adds one matching row to the group with the given code. */
+        void add(int code, double price, double rating) {
+            prices[code].accept(price);
+            ratings[code].accept(rating);
+        }
+
+        /** Merges another set of totals into this one, group by group. */
+        Groups combine(Groups other) {
+            for (int otherCode = 0; otherCode < other.size; otherCode++) {
+                if (other.prices[otherCode].getCount() == 0) {
+                    continue;
+                }
+                int code = code(other.names[otherCode]);
+                prices[code].combine(other.prices[otherCode]);
+                ratings[code].combine(other.ratings[otherCode]);
+            }
+            return this;
+        }
+
+        /**
+         * Returns the code of a status, adding a new group if needed. There
+         * are only a few statuses, and parsed ones are interned, so a scan
+         * by identity nearly always finds the group without hashing.
+         */
+        private int code(String status) {
+            for (int code = 0; code < size; code++) {
+                if (names[code] == status) {
+                    return code;
+                }
+            }
+            for (int code = 0; code < size; code++) {
+                if (names[code].equals(status)) {
+                    return code;
+                }
+            }
+            if (size == names.length) {
+                int capacity = size * 2;
+                names = Arrays.copyOf(names, capacity);
+                prices = Arrays.copyOf(prices, capacity);
+                ratings = Arrays.copyOf(ratings, capacity);
+            }
+            names[size] = status;
+            prices[size] = new DoubleSummaryStatistics();
+            ratings[size] = new DoubleSummaryStatistics();
+            return size++;
+        }
+    }
+}
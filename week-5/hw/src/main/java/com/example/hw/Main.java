@@ -1,3 +1,5 @@
+package com.example.hw;
+
 import java.io.PrintStream;
 
 /**
@@ -0,0 +1,123 @@
+package com.example.hw;
+
+import java.util.regex.Pattern;
+
+/**
+ * Matches product names against a name regex with the same result as
+ * {@link String#matches(String)}, but compiles the pattern only once.
+ * Common trivial patterns are recognised up front and evaluated with plain
+ * string operations instead of the regex engine:
+ * <ul>
+ *   <li>{@code .*} matches every name,</li>
+ *   <li>{@code Abc.*} is a prefix test,</li>
+ *   <li>{@code .*Abc.*} is a substring test,</li>
+ *   <li>{@code Abc} with no metacharacters is an equality test.</li>
+ * </ul>
+ */
+public final class NameMatcher {
+
+    /** The strategy chosen for a pattern. */
+    enum Kind { ANY, PREFIX, CONTAINS, LITERAL, REGEX }
+
+    private static final String ANY_SUFFIX = ".*";
+    private static final String METACHARACTERS = "\\^$.|?*+()[]{}";
+
+    private final String regex;
+    private final Kind kind;
+    private final String literal;
+    private final Pattern pattern;
+
+    /**
+     * Private constructor used by {@link #compile(String)}.
+     */
+    private NameMatcher(String regex, Kind kind, String literal, Pattern pattern) {
+        this.regex = regex;
+        this.kind = kind;
+        this.literal = literal;
+        this.pattern = pattern;
+    }
+
+    /**
+     * Compiles a name regex, choosing a fast path when the pattern allows it.
+     *
+     * @param regex The regular expression for matching product names.
+     * @return A reusable matcher for the pattern.
+     * @throws java.util.regex.PatternSyntaxException if the regex is invalid.
+     */
+    public static NameMatcher compile(String regex) {
+        if (regex.equals(ANY_SUFFIX)) {
+            return new NameMatcher(regex, Kind.ANY, "", null);
+        }
+        if (regex.startsWith(ANY_SUFFIX) && regex.endsWith(ANY_SUFFIX)
+                && regex.length() > 2 * ANY_SUFFIX.length()) {
+            String middle = regex.substring(ANY_SUFFIX.length(), regex.length() - ANY_SUFFIX.length());
+            if (isLiteral(middle) && !hasLineTerminator(middle, 0, middle.length())) {
+                return new NameMatcher(regex, Kind.CONTAINS, middle, null);
+            }
+        }
+        if (regex.endsWith(ANY_SUFFIX)) {
+            String prefix = regex.substring(0, regex.length() - ANY_SUFFIX.length());
+            if (isLiteral(prefix)) {
+                return new NameMatcher(regex, Kind.PREFIX, prefix, null);
+            }
+        }
+        if (isLiteral(regex)) {
+            return new NameMatcher(regex, Kind.LITERAL, regex, null);
+        }
+        return new NameMatcher(regex, Kind.REGEX, null, Pattern.compile(regex));
+    }
+
+    /**
+     * Tests a product name against the pattern.
+     *
+     * @param name The product name.
+     * @return true if the whole name matches the pattern.
+     */
+    public boolean matches(String name) {
+        switch (kind) {
+            case ANY:
+                return !hasLineTerminator(name, 0, name.length());
+            case PREFIX:
+                return name.startsWith(literal)
+                        && !hasLineTerminator(name, literal.length(), name.length());
+            case CONTAINS:
+                return name.contains(literal) && !hasLineTerminator(name, 0, name.length());
+            case LITERAL:
+                return name.equals(literal);
+            default:
+                return pattern.matcher(name).matches();
+        }
+    }
+
+    /** @return The strategy chosen for this pattern. */
+    Kind getKind() { return kind; }
+
+    /** @return The original regular expression. */
+    public String getRegex() { return regex; }
+
+    /**
+     * Checks whether a pattern fragment contains no regex metacharacters.
+     */
+    private static boolean isLiteral(String fragment) {
+        for (int i = 0; i < fragment.length(); i++) {
+            if (METACHARACTERS.indexOf(fragment.charAt(i)) >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks for the characters that '.' does not match by default, so the
+     * fast paths agree with the regex engine on every possible name.
+     */
+    static boolean hasLineTerminator(String s, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,373 @@
+package com.example.hw;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Decompresses a gzip file whose members are inflated in parallel.
+ *
+ * A gzip file may hold many members, each an independent compressed
+ * stream. BGZF files, as written by bgzip, record the compressed size of
+ * every member in its header, so the member boundaries can be found by
+ * hopping from header to header without inflating anything. Consecutive
+ * members are grouped into batches of about a megabyte, the batches are
+ * inflated on the fork-join pool a few at a time ahead of the reader, and
+ * the output is returned in file order. Other gzip files have no recorded
+ * boundaries and are read with a plain GZIPInputStream.
+ *
+ * The uncompressed size of a BGZF file is remembered for as long as the
+ * file's size and last-modified time stay the same, so checking it before
+ * every report does not walk the member headers again.
+ */
+public final class ParallelGzipInputStream extends InputStream {
+
+    /** The file extension that marks gzip-compressed input. */
+    public static final String EXTENSION = ".gz";
+
+    /** Members are grouped until a batch holds at least this many compressed bytes. */
+    private static final long BATCH_BYTES = 1L << 20;
+
+    private static final int READ_BUFFER_BYTES = 1 << 16;
+
+    /** The fixed header fields, up to and including XLEN. */
+    private static final int HEADER_BYTES = 12;
+
+    /** The BGZF extra subfield: SI1 'B', SI2 'C', SLEN 2 and the block size. */
+    private static final int BGZF_SUBFIELD_BYTES = 6;
+
+    /** The ISIZE field that ends every member. */
+    private static final int ISIZE_BYTES = 4;
+
+    private static final Map<Path, SizeEntry> SIZES = new ConcurrentHashMap<>();
+
+    private final FileChannel channel;
+    private final List<long[]> batches;
+    private final ArrayDeque<CompletableFuture<byte[]>> pending = new ArrayDeque<>();
+    private final int window;
+    private int nextBatch;
+    private byte[] current = new byte[0];
+    private int position;
+
+    private ParallelGzipInputStream(FileChannel channel, List<long[]> batches) {
+        this.channel = channel;
+        this.batches = batches;
+        this.window = 2 * ForkJoinPool.getCommonPoolParallelism();
+    }
+
+    /**
+     * Checks whether a filename names gzip-compressed input.
+     *
+     * @param filename The path to check.
+     * @return true if the file has the gzip extension.
+     */
+    public static boolean isCompressed(String filename) {
+        return filename.endsWith(EXTENSION);
+    }
+
+    /**
+     * Opens a file for reading, decompressing it if it has the gzip
+     * extension. BGZF files are inflated in parallel; other gzip files,
+     * including plain concatenations of members, are inflated on the
+     * calling thread.
+     *
+     * @param filename The path to the file.
+     * @return A stream of the file's uncompressed bytes.
+     * @throws IOException if the file cannot be opened or is not gzip data.
+     */
+    public static InputStream open(String filename) throws IOException {
+        Path path = Paths.get(filename);
+        if (!isCompressed(filename)) {
+            return Files.newInputStream(path);
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            List<long[]> batches = findBatches(channel);
+            if (batches != null) {
+                return new ParallelGzipInputStream(channel, batches);
+            }
+            channel.close();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return new GZIPInputStream(Files.newInputStream(path), READ_BUFFER_BYTES);
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!fill()) {
+            return -1;
+        }
+        return current[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!fill()) {
+            return -1;
+        }
+        int n = Math.min(len, current.length - position);
+        System.arraycopy(current, position, b, off, n);
+        position += n;
+        return n;
+    }
+
+    @Override
+    public int available() {
+        return current.length - position;
+    }
+
+    /**
+     * Cancels the batches that are still queued and closes the file.
+     */
+    @Override
+    public void close() throws IOException {
+        for (CompletableFuture<byte[]> batch : pending) {
+            batch.cancel(false);
+        }
+        pending.clear();
+        nextBatch = batches.size();
+        channel.close();
+    }
+
+    /**
+     * Makes sure unread output is available, waiting for the next batch if
+     * the current one is used up.
+     *
+     * @return false at the end of the file.
+     */
+    private boolean fill() throws IOException {
+        while (position == current.length) {
+            while (pending.size() < window && nextBatch < batches.size()) {
+                long[] batch = batches.get(nextBatch++);
+                pending.add(CompletableFuture.supplyAsync(() -> inflate(batch[0], batch[1]),
+                        ForkJoinPool.commonPool()));
+            }
+            CompletableFuture<byte[]> next = pending.poll();
+            if (next == null) {
+                return false;
+            }
+            try {
+                current = next.get();
+                position = 0;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Decompression interrupted");
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof UncheckedIOException) {
+                    throw ((UncheckedIOException) cause).getCause();
+                }
+                throw new IOException("Decompression failed", cause);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads the members between two file offsets and inflates them. The
+     * channel is only read at explicit positions, so batches can be read
+     * by several threads at once.
+     */
+    private byte[] inflate(long start, long end) {
+        try {
+            ByteBuffer compressed = ByteBuffer.allocate((int) (end - start));
+            if (!readFully(channel, compressed, start)) {
+                throw new EOFException("Unexpected end of gzip member");
+            }
+            try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed.array()),
+                    READ_BUFFER_BYTES)) {
+                return in.readAllBytes();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the total uncompressed size of a BGZF file, the sum of the
+     * sizes recorded in the trailer of every member. Other gzip files only
+     * record the size of their last member, modulo 4 GB, which says nothing
+     * reliable about the whole file.
+     *
+     * @param filename The path to the gzip file.
+     * @return The uncompressed size in bytes, or -1 if the file is not BGZF.
+     * @throws IOException if the file cannot be read.
+     */
+    public static long uncompressedSize(String filename) throws IOException {
+        Path path = Paths.get(filename).toAbsolutePath().normalize();
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        long size = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        SizeEntry cached = SIZES.get(path);
+        if (cached != null && cached.size == size && cached.lastModified == lastModified) {
+            return cached.uncompressedBytes;
+        }
+
+        long total;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            Members members = findMembers(channel);
+            total = members == null ? -1 : members.uncompressedBytes;
+        }
+        SIZES.put(path, new SizeEntry(size, lastModified, total));
+        return total;
+    }
+
+    /**
+     * Groups the members of a BGZF file into batches of whole members.
+     *
+     * @return The start and end offset of each batch, or null if the file
+     *         is not BGZF.
+     */
+    private static List<long[]> findBatches(FileChannel channel) throws IOException {
+        Members members = findMembers(channel);
+        if (members == null) {
+            return null;
+        }
+        long[] ends = members.ends;
+        List<long[]> batches = new ArrayList<>();
+        long batchStart = 0;
+        for (int i = 0; i < ends.length; i++) {
+            if (ends[i] - batchStart >= BATCH_BYTES || i == ends.length - 1) {
+                batches.add(new long[] {batchStart, ends[i]});
+                batchStart = ends[i];
+            }
+        }
+        return batches;
+    }
+
+    /**
+     * Walks the member headers of a BGZF file. Each header is read together
+     * with the trailer of the member before it, so the uncompressed size is
+     * added up in the same pass.
+     *
+     * @return The end offset of every member and the total uncompressed
+     *         size, or null if the file is empty or any member does not
+     *         record its size.
+     */
+    private static Members findMembers(FileChannel channel) throws IOException {
+        long size = channel.size();
+        ByteBuffer window = ByteBuffer.allocate(ISIZE_BYTES + HEADER_BYTES + BGZF_SUBFIELD_BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer header = window.slice(ISIZE_BYTES, HEADER_BYTES + BGZF_SUBFIELD_BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        long[] ends = new long[16];
+        int count = 0;
+        long offset = 0;
+        long uncompressed = 0;
+        while (offset < size) {
+            // The window starts at the previous member's ISIZE; the first member has none
+            window.clear().position(offset == 0 ? ISIZE_BYTES : 0);
+            if (!readFully(channel, window, offset - ISIZE_BYTES)) {
+                return null;
+            }
+            if (offset > 0) {
+                uncompressed += window.getInt(0) & 0xFFFFFFFFL;
+            }
+            long memberBytes = bgzfMemberBytes(header);
+            if (memberBytes <= 0 || offset + memberBytes > size) {
+                return null;
+            }
+            offset += memberBytes;
+            if (count == ends.length) {
+                ends = Arrays.copyOf(ends, count * 2);
+            }
+            ends[count++] = offset;
+        }
+        if (count == 0) {
+            return null;
+        }
+        window.clear().limit(ISIZE_BYTES);
+        if (!readFully(channel, window, size - ISIZE_BYTES)) {
+            return null;
+        }
+        uncompressed += window.getInt(0) & 0xFFFFFFFFL;
+        return new Members(Arrays.copyOf(ends, count), uncompressed);
+    }
+
+    /**
+     * Fills a buffer from the channel, placing the byte at file offset
+     * {@code base + i} at index i of the buffer.
+     *
+     * @return false if the file ends before the buffer is full.
+     */
+    private static boolean readFully(FileChannel channel, ByteBuffer buffer, long base) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, base + buffer.position()) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads the member size from a BGZF header, whose extra field starts
+     * with the "BC" subfield holding the member size minus one.
+     *
+     * @return The total size of the member, or -1 if it is not recorded.
+     */
+    private static long bgzfMemberBytes(ByteBuffer header) {
+        boolean gzip = (header.get(0) & 0xFF) == 0x1F && (header.get(1) & 0xFF) == 0x8B && header.get(2) == 8;
+        boolean hasExtra = (header.get(3) & 0x04) != 0;
+        if (!gzip || !hasExtra || (header.getShort(10) & 0xFFFF) < BGZF_SUBFIELD_BYTES) {
+            return -1;
+        }
+        if (header.get(12) != 'B' || header.get(13) != 'C' || header.getShort(14) != 2) {
+            return -1;
+        }
+        return (header.getShort(16) & 0xFFFF) + 1;
+    }
+
+    /**
+     * The member layout of a BGZF file.
+     */
+    private static final class Members {
+        final long[] ends;
+        final long uncompressedBytes;
+
+        Members(long[] ends, long uncompressedBytes) {
+            this.ends = ends;
+            this.uncompressedBytes = uncompressedBytes;
+        }
+    }
+
+    /**
+     * A remembered uncompressed size and the file state it was measured at.
+     */
+    private static final class SizeEntry {
+        final long size;
+        final long lastModified;
+        final long uncompressedBytes;
+
+        SizeEntry(long size, long lastModified, long uncompressedBytes) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.uncompressedBytes = uncompressedBytes;
+        }
+    }
+}
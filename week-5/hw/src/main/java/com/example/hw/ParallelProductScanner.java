@@ -0,0 +1,352 @@
+package com.example.hw;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+
+/**
+ * Scans a product CSV file in parallel.
+ * The file is memory-mapped with NIO and split into chunks whose boundaries
+ * are moved forward to the next line end, so no row is ever split between
+ * two chunks. Each chunk is parsed into its own accumulator on the fork-join
+ * pool and the partial results are combined at the end, in file order.
+ * Gzip-compressed files cannot be mapped; they are decompressed by a
+ * ParallelGzipInputStream and parsed as one stream instead.
+ */
+public final class ParallelProductScanner {
+
+    /** Chunks smaller than this are not worth handing to another thread. */
+    private static final long MIN_CHUNK_BYTES = 4L * 1024 * 1024;
+
+    /** A single mapping must stay below the 2 GB limit of a MappedByteBuffer. */
+    private static final long MAX_CHUNK_BYTES = 1L << 30;
+
+    /** The size of the blocks that a sampled scan chooses from. */
+    private static final long SAMPLE_BLOCK_BYTES = 256L * 1024;
+
+    /** How much is read at a time while looking for a line end; rows are short. */
+    private static final int PROBE_BYTES = 8 * 1024;
+
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private ParallelProductScanner() {}
+
+    /**
+     * Parses every product in a CSV file in parallel and reduces the rows
+     * that pass a filter into a single result. The header line is skipped,
+     * as in ProductReader, and rejected rows are never materialised.
+     * Gzip-compressed files are read whole into one accumulator.
+     *
+     * @param filename    The path to the CSV file.
+     * @param filter      The filter rows must pass, or null to keep every row.
+     * @param supplier    Creates an empty accumulator for each chunk.
+     * @param accumulator Folds one product into an accumulator.
+     * @param combiner    Merges the accumulator of a later chunk into an earlier one.
+     * @param <A>         The accumulator type.
+     * @return The combined accumulator for the whole file.
+     * @throws IOException if the file cannot be read.
+     */
+    public static <A> A scan(String filename, ProductFilter filter, Supplier<A> supplier,
+                             BiConsumer<A, Product> accumulator,
+                             BinaryOperator<A> combiner) throws IOException {
+        if (ParallelGzipInputStream.isCompressed(filename)) {
+            return readCompressed(filename, filter, supplier, accumulator);
+        }
+        Path path = Paths.get(filename);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return run(channel, split(channel), filter, start -> supplier.get(), accumulator, combiner);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Reads a gzip-compressed file into a single accumulator. Inflating runs
+     * in parallel inside the stream; the rows are parsed as they arrive.
+     */
+    private static <A> A readCompressed(String filename, ProductFilter filter, Supplier<A> supplier,
+                                        BiConsumer<A, Product> accumulator) throws IOException {
+        A result = supplier.get();
+        ProductReader.read(filename, filter, p -> accumulator.accept(result, p));
+        return result;
+    }
+
+    /**
+     * Parses a random sample of the rows of a CSV file in parallel, reading
+     * only about sampleBytes of the file. The data rows are cut into equal
+     * blocks and a seeded random subset of blocks is scanned; each block
+     * contributes the lines that start inside it, so every line has the same
+     * chance of being read. Files no larger than sampleBytes are read whole.
+     *
+     * @param filename    The path to the CSV file.
+     * @param filter      The filter rows must pass, or null to keep every row.
+     * @param sampleBytes The approximate number of bytes to read.
+     * @param seed        The seed used to choose blocks, for repeatable results.
+     * @param supplier    Creates an empty accumulator for each block, given the
+     *                    file offset the block starts at, so accumulators that
+     *                    draw random numbers can be seeded the same on every run.
+     * @param accumulator Folds one product into an accumulator.
+     * @param combiner    Merges the accumulator of a later block into an earlier one.
+     * @param <A>         The accumulator type.
+     * @return The combined accumulator and the fraction of the file read.
+     * @throws IOException if the file cannot be read.
+     */
+    public static <A> Sample<A> scanSample(String filename, ProductFilter filter, long sampleBytes, long seed,
+                                           LongFunction<A> supplier, BiConsumer<A, Product> accumulator,
+                                           BinaryOperator<A> combiner) throws IOException {
+        if (ParallelGzipInputStream.isCompressed(filename)) {
+            // Compressed offsets cannot be sampled, so the whole file is read
+            return new Sample<>(readCompressed(filename, filter, () -> supplier.apply(0), accumulator), 1.0);
+        }
+        Path path = Paths.get(filename);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long dataStart = nextLineStart(channel, 0, size);
+            long dataBytes = size - dataStart;
+            if (dataBytes <= sampleBytes) {
+                return new Sample<>(run(channel, split(channel), filter, supplier, accumulator, combiner), 1.0);
+            }
+
+            int blockCount = (int) Math.min(Integer.MAX_VALUE, Math.max(1, dataBytes / SAMPLE_BLOCK_BYTES));
+            long blockBytes = dataBytes / blockCount;
+            int wanted = (int) Math.max(1, Math.min(blockCount, sampleBytes / blockBytes));
+
+            // Choose distinct blocks with a partial Fisher-Yates shuffle over their numbers
+            SplittableRandom random = new SplittableRandom(seed);
+            Map<Integer, Integer> swapped = new HashMap<>();
+            int[] picked = new int[wanted];
+            for (int i = 0; i < wanted; i++) {
+                int j = i + random.nextInt(blockCount - i);
+                picked[i] = swapped.getOrDefault(j, j);
+                swapped.put(j, swapped.getOrDefault(i, i));
+            }
+            Arrays.sort(picked);
+
+            List<long[]> chunks = new ArrayList<>();
+            for (int block : picked) {
+                long blockStart = dataStart + block * blockBytes;
+                long blockEnd = block == blockCount - 1 ? size : blockStart + blockBytes;
+                // A block owns the lines that start inside it
+                long start = block == 0 ? dataStart : nextLineStart(channel, blockStart - 1, size);
+                long end = blockEnd == size ? size : nextLineStart(channel, blockEnd - 1, size);
+                if (start < end) {
+                    chunks.add(new long[] {start, end});
+                }
+            }
+            A result = run(channel, chunks, filter, supplier, accumulator, combiner);
+            return new Sample<>(result, (double) wanted / blockCount);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Runs the fork-join scan over a list of chunks.
+     */
+    private static <A> A run(FileChannel channel, List<long[]> chunks, ProductFilter filter,
+                             LongFunction<A> supplier, BiConsumer<A, Product> accumulator,
+                             BinaryOperator<A> combiner) {
+        if (chunks.isEmpty()) {
+            return supplier.apply(0);
+        }
+        return ForkJoinPool.commonPool().invoke(new ScanTask<>(channel, chunks, 0, chunks.size(),
+                filter, supplier, accumulator, combiner));
+    }
+
+    /**
+     * Splits the data rows of the file into [start, end) ranges that begin
+     * and end on line boundaries.
+     */
+    private static List<long[]> split(FileChannel channel) throws IOException {
+        long size = channel.size();
+        long start = nextLineStart(channel, 0, size); // skip the header line
+        List<long[]> chunks = new ArrayList<>();
+        if (start >= size) {
+            return chunks;
+        }
+
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        long target = (size - start) / Math.max(1, parallelism * 4L);
+        long chunkSize = Math.min(MAX_CHUNK_BYTES, Math.max(MIN_CHUNK_BYTES, target));
+
+        while (start < size) {
+            long end = start + chunkSize >= size ? size : nextLineStart(channel, start + chunkSize, size);
+            if (end - start > Integer.MAX_VALUE) {
+                throw new IOException("Line too long to map near offset " + start);
+            }
+            chunks.add(new long[] {start, end});
+            start = end;
+        }
+        return chunks;
+    }
+
+    /**
+     * Finds the offset where the line containing the given position ends
+     * and the next one starts. Lines end at "\n", "\r" or "\r\n", as in
+     * parseChunk, so chunks split here never cut a row. The bytes are read
+     * into a small heap buffer, since a probe only looks a short way ahead.
+     */
+    private static long nextLineStart(FileChannel channel, long from, long size) throws IOException {
+        ByteBuffer window = ByteBuffer.allocate(PROBE_BYTES);
+        long position = from;
+        while (position < size) {
+            window.clear();
+            int length = channel.read(window, position);
+            if (length <= 0) {
+                break;
+            }
+            for (int i = 0; i < length; i++) {
+                byte b = window.get(i);
+                if (b == '\n') {
+                    return position + i + 1;
+                }
+                if (b == '\r') {
+                    long next = position + i + 1;
+                    // A '\n' right after the '\r' belongs to the same line end
+                    return next < size && byteAt(channel, window, position, length, next) == '\n'
+                            ? next + 1 : next;
+                }
+            }
+            position += length;
+        }
+        return size;
+    }
+
+    /**
+     * Returns the byte at a file offset, from the probe window if it holds it.
+     */
+    private static byte byteAt(FileChannel channel, ByteBuffer window, long windowStart, int windowLength,
+                               long offset) throws IOException {
+        if (offset < windowStart + windowLength) {
+            return window.get((int) (offset - windowStart));
+        }
+        ByteBuffer one = ByteBuffer.allocate(1);
+        return channel.read(one, offset) == 1 ? one.get(0) : -1;
+    }
+
+    /**
+     * Parses all rows of one mapped chunk that pass the filter into the
+     * accumulator. Lines end at "\n", "\r" or "\r\n", matching
+     * BufferedReader.readLine().
+     */
+    private static <A> void parseChunk(MappedByteBuffer buffer, ProductFilter filter, A acc,
+                                       BiConsumer<A, Product> accumulator) {
+        CsvTokenizer row = new CsvTokenizer(Charset.defaultCharset());
+        byte[] line = new byte[256];
+        int limit = buffer.limit();
+        int i = 0;
+        while (i < limit) {
+            int length = 0;
+            byte b = 0;
+            while (i < limit && (b = buffer.get(i)) != '\n' && b != '\r') {
+                if (length == line.length) {
+                    line = Arrays.copyOf(line, length * 2);
+                }
+                line[length++] = b;
+                i++;
+            }
+            if (i < limit) {
+                i++;
+                if (b == '\r' && i < limit && buffer.get(i) == '\n') {
+                    i++;
+                }
+            }
+            row.tokenize(line, 0, length);
+            Product p = ProductReader.parseRow(row, filter);
+            if (p != null) {
+                accumulator.accept(acc, p);
+            }
+        }
+    }
+
+    /**
+     * The result of a sampled scan.
+     *
+     * @param <A> The accumulator type.
+     */
+    public static final class Sample<A> {
+        private final A result;
+        private final double fraction;
+
+        Sample(A result, double fraction) {
+            this.result = result;
+            this.fraction = fraction;
+        }
+
+        /** @return The combined accumulator of the sampled rows. */
+        public A getResult() { return result; }
+
+        /** @return The fraction of the data rows that was read, between 0 and 1. */
+        public double getFraction() { return fraction; }
+    }
+
+    /**
+     * Recursively splits a run of chunks and combines the partial results.
+     */
+    private static final class ScanTask<A> extends RecursiveTask<A> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final FileChannel channel;
+        private final List<long[]> chunks;
+        private final int from;
+        private final int to;
+        private final ProductFilter filter;
+        private final LongFunction<A> supplier;
+        private final BiConsumer<A, Product> accumulator;
+        private final BinaryOperator<A> combiner;
+
+        ScanTask(FileChannel channel, List<long[]> chunks, int from, int to, ProductFilter filter,
+                 LongFunction<A> supplier, BiConsumer<A, Product> accumulator, BinaryOperator<A> combiner) {
+            this.channel = channel;
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+            this.filter = filter;
+            this.supplier = supplier;
+            this.accumulator = accumulator;
+            this.combiner = combiner;
+        }
+
+        @Override
+        protected A compute() {
+            if (to - from == 1) {
+                long[] chunk = chunks.get(from);
+                A acc = supplier.apply(chunk[0]);
+                try {
+                    MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY,
+                            chunk[0], chunk[1] - chunk[0]);
+                    parseChunk(buffer, filter, acc, accumulator);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return acc;
+            }
+            int mid = (from + to) >>> 1;
+            ScanTask<A> left = new ScanTask<>(channel, chunks, from, mid, filter, supplier, accumulator, combiner);
+            ScanTask<A> right = new ScanTask<>(channel, chunks, mid, to, filter, supplier, accumulator, combiner);
+            right.fork();
+            A leftResult = left.compute();
+            return combiner.apply(leftResult, right.join());
+        }
+    }
+}
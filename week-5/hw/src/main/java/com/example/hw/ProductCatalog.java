@@ -0,0 +1,280 @@
+package com.example.hw;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * An immutable, parsed product catalog shared by all Report implementations.
+ * The products are held in a columnar ProductTable, indexed on price and
+ * rating unless indexing has been turned off.
+ * Catalogs are cached by file path and are reused for as long as the file's
+ * size and last-modified time stay the same, so a batch of reports over the
+ * same file parses it only once, even when the reports run concurrently:
+ * the first caller parses the file and the others wait for its result.
+ * Files larger than the cache limit are
+ * streamed straight from disk instead of being held in memory; for gzip
+ * input the limit applies to the uncompressed size.
+ */
+public final class ProductCatalog {
+
+    /** Files larger than this many bytes are streamed rather than cached. */
+    private static final long DEFAULT_MAX_CACHED_BYTES = 256L * 1024 * 1024;
+
+    private static final Map<Path, CacheEntry> CACHE = new ConcurrentHashMap<>();
+    private static final AtomicLong HITS = new AtomicLong();
+    private static final AtomicLong MISSES = new AtomicLong();
+    private static volatile long maxCachedBytes = DEFAULT_MAX_CACHED_BYTES;
+    private static volatile boolean indexingEnabled = true;
+
+    /**
+     * How a report reads a file: from the cached table, as a parallel scan
+     * of a file too large to cache, or as a plain sequential read of a
+     * snapshot too large to cache, which needs no parsing.
+     */
+    public enum Access { CACHED, SCAN, SEQUENTIAL }
+
+    private final ProductTable table;
+
+    /**
+     * Private constructor used when a file is parsed into the cache.
+     *
+     * @param table The parsed products in columnar form.
+     */
+    private ProductCatalog(ProductTable table) {
+        this.table = table;
+    }
+
+    /** @return The products as a read-only columnar table, in file order. */
+    public ProductTable getTable() { return table; }
+
+    /**
+     * Visits every product in the given file that passes a filter, in file
+     * order. Cached files are filtered over the columnar table and only the
+     * matching rows are materialised as Product objects; files too large to
+     * cache are streamed and filtered row by row.
+     * Read errors are printed to standard error, matching ProductReader.
+     *
+     * @param filename The path to the CSV file.
+     * @param filter   The compiled report filter.
+     * @param action   The callback that receives each matching product.
+     */
+    public static void forEach(String filename, ProductFilter filter, Consumer<Product> action) {
+        try {
+            read(filename, filter, action);
+        } catch (IOException e) {
+            System.err.println("Error reading file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Visits every product in the given file that passes a filter, in file
+     * order, like {@link #forEach(String, ProductFilter, Consumer)}, but
+     * throws read errors to the caller.
+     *
+     * @param filename The path to the CSV file.
+     * @param filter   The compiled report filter.
+     * @param action   The callback that receives each matching product.
+     * @throws IOException if the file cannot be read.
+     */
+    public static void read(String filename, ProductFilter filter, Consumer<Product> action) throws IOException {
+        if (isOversized(filename)) {
+            ProductReader.read(filename, filter, action);
+            return;
+        }
+        ProductTable table = load(filename).table;
+        for (int row : table.select(filter)) {
+            action.accept(table.getProduct(row));
+        }
+    }
+
+    /**
+     * Folds the products of a file that pass a filter into a result, reading
+     * the file the way {@link #access(String)} picks. Oversized files are fed
+     * to the accumulator one product at a time, in parallel chunks for CSV
+     * and gzip input; cached files are handed to fromTable with the matching
+     * rows, so reports can aggregate straight from the primitive columns.
+     *
+     * @param filename    The path to the product file.
+     * @param filter      The compiled report filter.
+     * @param supplier    Creates an empty result.
+     * @param accumulator Folds one matching product into a result.
+     * @param combiner    Merges the result of a later chunk into an earlier one.
+     * @param fromTable   Builds the result from the cached table and its matching rows.
+     * @param <A>         The result type.
+     * @return The result over every matching product.
+     * @throws IOException if the file cannot be read.
+     */
+    public static <A> A aggregate(String filename, ProductFilter filter, Supplier<A> supplier,
+                                  BiConsumer<A, Product> accumulator, BinaryOperator<A> combiner,
+                                  BiFunction<ProductTable, int[], A> fromTable) throws IOException {
+        switch (access(filename)) {
+            case SEQUENTIAL:
+                A result = supplier.get();
+                ProductReader.read(filename, filter, p -> accumulator.accept(result, p));
+                return result;
+            case SCAN:
+                return ParallelProductScanner.scan(filename, filter, supplier, accumulator, combiner);
+            default:
+                ProductTable table = load(filename).table;
+                return fromTable.apply(table, table.select(filter));
+        }
+    }
+
+    /**
+     * Picks how a report should read a file.
+     *
+     * @param filename The path to the product file.
+     * @return CACHED unless the file is too large to cache; otherwise
+     *         SEQUENTIAL for a snapshot and SCAN for anything else.
+     * @throws IOException if the file size cannot be read.
+     */
+    public static Access access(String filename) throws IOException {
+        if (!isOversized(filename)) {
+            return Access.CACHED;
+        }
+        return ProductSnapshot.isSnapshot(filename) ? Access.SEQUENTIAL : Access.SCAN;
+    }
+
+    /**
+     * Checks whether a file is too large to cache. A gzip file is measured
+     * by its uncompressed size, since that is what the cached table holds;
+     * a gzip file that does not record its uncompressed size is always
+     * treated as too large, as it may inflate to any size.
+     *
+     * @param filename The path to the product file.
+     * @return true if the file should be streamed rather than cached.
+     * @throws IOException if the file size cannot be read.
+     */
+    public static boolean isOversized(String filename) throws IOException {
+        if (ParallelGzipInputStream.isCompressed(filename)) {
+            long size = ParallelGzipInputStream.uncompressedSize(filename);
+            return size < 0 || size > maxCachedBytes;
+        }
+        return Files.size(Paths.get(filename)) > maxCachedBytes;
+    }
+
+    /**
+     * Returns the parsed catalog for a file, parsing it only if it is not
+     * cached or if its size or last-modified time changed since it was cached.
+     *
+     * @param filename The path to the CSV file.
+     * @return The parsed catalog.
+     * @throws IOException if the file cannot be read.
+     */
+    public static ProductCatalog load(String filename) throws IOException {
+        return load(Paths.get(filename).toAbsolutePath().normalize());
+    }
+
+    private static ProductCatalog load(Path path) throws IOException {
+        long size = Files.size(path);
+        long lastModified = Files.getLastModifiedTime(path).toMillis();
+
+        // Claim the slot for this version of the file, or join the caller
+        // that already holds it, whether it has finished parsing or not
+        CacheEntry created = new CacheEntry(size, lastModified);
+        CacheEntry entry = CACHE.compute(path, (p, cached) ->
+                cached != null && cached.size == size && cached.lastModified == lastModified ? cached : created);
+        if (entry != created) {
+            HITS.incrementAndGet();
+            return entry.await();
+        }
+
+        MISSES.incrementAndGet();
+        try {
+            ProductTable.Builder builder = new ProductTable.Builder();
+            ProductReader.read(path.toString(), builder::add);
+            ProductTable table = builder.build();
+            if (indexingEnabled) {
+                table.buildIndexes();
+            }
+            ProductCatalog catalog = new ProductCatalog(table);
+            entry.catalog.complete(catalog);
+            return catalog;
+        } catch (IOException | RuntimeException e) {
+            // A failed parse is not cached; the next caller tries again
+            CACHE.remove(path, entry);
+            entry.catalog.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /** @return The number of lookups served from the cache. */
+    public static long getCacheHits() { return HITS.get(); }
+
+    /** @return The number of lookups that had to parse the file. */
+    public static long getCacheMisses() { return MISSES.get(); }
+
+    /** @return The largest file size, in bytes, that will be cached. */
+    public static long getMaxCachedBytes() { return maxCachedBytes; }
+
+    /**
+     * Sets the largest file size, in bytes, that will be cached.
+     * @param bytes The new limit.
+     */
+    public static void setMaxCachedBytes(long bytes) { maxCachedBytes = bytes; }
+
+    /**
+     * Turns the sorted price and rating indexes on or off for catalogs
+     * loaded from now on. Indexes are on by default.
+     * @param enabled true to build indexes when a catalog is loaded.
+     */
+    public static void setIndexingEnabled(boolean enabled) { indexingEnabled = enabled; }
+
+    /**
+     * Drops every cached catalog and resets the hit and miss counters.
+     */
+    public static void clearCache() {
+        CACHE.clear();
+        HITS.set(0);
+        MISSES.set(0);
+    }
+
+    /**
+     * The cache slot for one version of a file. The catalog completes once
+     * the caller that created the slot has parsed the file.
+     */
+    private static final class CacheEntry {
+        final long size;
+        final long lastModified;
+        final CompletableFuture<ProductCatalog> catalog = new CompletableFuture<>();
+
+        CacheEntry(long size, long lastModified) {
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+
+        /**
+         * Waits for the catalog, rethrowing the parse error if it failed.
+         */
+        ProductCatalog await() throws IOException {
+            try {
+                return catalog.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the catalog");
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new IOException("Loading the catalog failed", cause);
+            }
+        }
+    }
+}
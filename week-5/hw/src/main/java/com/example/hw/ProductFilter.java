@@ -0,0 +1,78 @@
+package com.example.hw;
+
+import java.util.function.Predicate;
+
+/**
+ * A single fused predicate compiled from a ReportSpecs.
+ * The price and rating bounds are copied into primitive fields and the name
+ * regex is compiled once into a NameMatcher, so testing a row costs four
+ * double comparisons and at most one name match.
+ */
+public final class ProductFilter implements Predicate<Product> {
+
+    private final double minimumPrice;
+    private final double maximumPrice;
+    private final double minimumRating;
+    private final double maximumRating;
+    private final NameMatcher nameMatcher;
+
+    /**
+     * Compiles the filter for a set of report specifications.
+     *
+     * @param spec The report specifications.
+     */
+    ProductFilter(ReportSpecs spec) {
+        this.minimumPrice = spec.getMinimumPrice();
+        this.maximumPrice = spec.getMaximumPrice();
+        this.minimumRating = spec.getMinimumRating();
+        this.maximumRating = spec.getMaximumRating();
+        this.nameMatcher = NameMatcher.compile(spec.getNameRegex());
+    }
+
+    /**
+     * Tests a product against every criterion of the report specifications.
+     *
+     * @param p The product to test.
+     * @return true if the product should be included in the report.
+     */
+    @Override
+    public boolean test(Product p) {
+        return test(p.getPrice(), p.getRating(), p.getName());
+    }
+
+    /**
+     * Tests the filtered columns of a row without needing a Product object.
+     *
+     * @param price  The row's price.
+     * @param rating The row's rating.
+     * @param name   The row's name.
+     * @return true if the row should be included in the report.
+     */
+    public boolean test(double price, double rating, String name) {
+        return testBounds(price, rating) && nameMatcher.matches(name);
+    }
+
+    /**
+     * Tests only the price and rating bounds, so a row can be rejected
+     * before its name is decoded.
+     *
+     * @param price  The row's price.
+     * @param rating The row's rating.
+     * @return true if both values are within the bounds.
+     */
+    public boolean testBounds(double price, double rating) {
+        return price <= maximumPrice
+                && price >= minimumPrice
+                && rating <= maximumRating
+                && rating >= minimumRating;
+    }
+
+    // Getters for the compiled bounds
+    public double getMinimumPrice() { return minimumPrice; }
+    public double getMaximumPrice() { return maximumPrice; }
+    public double getMinimumRating() { return minimumRating; }
+    public double getMaximumRating() { return maximumRating; }
+
+    /** @return The compiled name matcher. */
+    public NameMatcher getNameMatcher() { return nameMatcher; }
+}
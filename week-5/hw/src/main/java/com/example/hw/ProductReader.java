@@ -0,0 +1,177 @@
+package com.example.hw;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Reads product data from a CSV file, or from a binary ProductSnapshot,
+ * one row at a time.
+ * Rows are handed to a callback as soon as they are parsed, so the caller
+ * decides what to keep and memory use does not grow with the file size.
+ * Each line is split in place by a CsvTokenizer, so quoted fields may
+ * contain commas. Files with the gzip extension are decompressed as they
+ * are read.
+ */
+public final class ProductReader {
+
+    /** The number of columns in a product row. */
+    private static final int FIELD_COUNT = 7;
+
+    private static final int READ_BUFFER_BYTES = 1 << 16;
+
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private ProductReader() {}
+
+    /**
+     * Streams every product in a CSV file to the given action.
+     * Assumes a comma-separated format with a header line to be skipped.
+     *
+     * @param filename The path to the CSV file.
+     * @param action   The callback that receives each parsed product.
+     */
+    public static void forEach(String filename, Consumer<Product> action) {
+        try {
+            read(filename, action);
+        } catch (IOException e) {
+            System.err.println("Error reading file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Streams every product in a CSV file to the given action, reporting
+     * I/O failures to the caller instead of printing them. Files with the
+     * snapshot extension are read as binary snapshots instead, and files
+     * with the gzip extension are decompressed on the fly.
+     *
+     * @param filename The path to the CSV file.
+     * @param action   The callback that receives each parsed product.
+     * @throws IOException if the file cannot be read.
+     */
+    public static void read(String filename, Consumer<Product> action) throws IOException {
+        read(filename, null, action);
+    }
+
+    /**
+     * Streams the products of a CSV file that pass a filter to the given
+     * action. Rows are tokenized in place and the price and rating bounds
+     * are checked on the parsed numbers first, so rows that fail them never
+     * allocate any Strings; the name is decoded only for the name check.
+     *
+     * @param filename The path to the CSV file.
+     * @param filter   The filter rows must pass, or null to keep every row.
+     * @param action   The callback that receives each matching product.
+     * @throws IOException if the file cannot be read.
+     */
+    public static void read(String filename, ProductFilter filter, Consumer<Product> action) throws IOException {
+        if (ProductSnapshot.isSnapshot(filename)) {
+            ProductSnapshot.read(filename, filter == null ? action : p -> {
+                if (filter.test(p)) {
+                    action.accept(p);
+                }
+            });
+            return;
+        }
+        CsvTokenizer row = new CsvTokenizer(Charset.defaultCharset());
+        try (InputStream in = ParallelGzipInputStream.open(filename)) {
+            // Lines are tokenized where they lie in the buffer; only a line
+            // cut off by the end of the buffer is moved to the front first
+            byte[] buffer = new byte[READ_BUFFER_BYTES];
+            int start = 0;
+            int scan = 0;
+            int limit = 0;
+            boolean header = true;
+            boolean skipLineFeed = false;
+            boolean eof = false;
+            while (true) {
+                if (skipLineFeed && start < limit) {
+                    skipLineFeed = false;
+                    if (buffer[start] == '\n') {
+                        scan = ++start; // second half of "\r\n"
+                    }
+                }
+                while (scan < limit && buffer[scan] != '\n' && buffer[scan] != '\r') {
+                    scan++;
+                }
+                if (scan < limit) {
+                    // Lines end at "\n", "\r" or "\r\n", as in BufferedReader.readLine()
+                    if (!header) {
+                        accept(row, buffer, start, scan, filter, action);
+                    }
+                    header = false;
+                    skipLineFeed = buffer[scan] == '\r';
+                    start = ++scan;
+                } else if (eof) {
+                    if (start < limit && !header) {
+                        accept(row, buffer, start, limit, filter, action);
+                    }
+                    return;
+                } else {
+                    if (start > 0) {
+                        System.arraycopy(buffer, start, buffer, 0, limit - start);
+                        limit -= start;
+                        scan -= start;
+                        start = 0;
+                    }
+                    if (limit == buffer.length) {
+                        buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                    }
+                    int n = in.read(buffer, limit, buffer.length - limit);
+                    if (n < 0) {
+                        eof = true;
+                    } else {
+                        limit += n;
+                    }
+                }
+            }
+        }
+    }
+
+    private static void accept(CsvTokenizer row, byte[] bytes, int from, int to, ProductFilter filter,
+                               Consumer<Product> action) {
+        row.tokenize(bytes, from, to);
+        Product p = parseRow(row, filter);
+        if (p != null) {
+            action.accept(p);
+        }
+    }
+
+    /**
+     * Builds a Product from a tokenized CSV row, or returns null if the row
+     * fails the filter. The price and rating are parsed and checked before
+     * any field is decoded into a String.
+     *
+     * @param row    A tokenizer holding one product row.
+     * @param filter The filter the row must pass, or null to keep every row.
+     * @return The parsed Product, or null if the filter rejects the row.
+     * @throws IllegalArgumentException if the row has fewer than seven fields.
+     */
+    static Product parseRow(CsvTokenizer row, ProductFilter filter) {
+        if (row.getFieldCount() < FIELD_COUNT) {
+            throw new IllegalArgumentException("Expected " + FIELD_COUNT + " fields in product row but found "
+                    + row.getFieldCount());
+        }
+        double price = row.getDouble(2);
+        double rating = row.getDouble(4);
+        if (filter != null && !filter.testBounds(price, rating)) {
+            return null;
+        }
+        String name = row.getString(1);
+        if (filter != null && !filter.getNameMatcher().matches(name)) {
+            return null;
+        }
+        return new Product(
+                row.getString(0),   // id
+                name,               // name
+                price,              // price
+                row.getString(3).intern(), // stockStatus, one shared instance per value
+                rating,             // rating
+                row.getString(5),   // description
+                row.getString(6)    // customerReview
+        );
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.hw;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Reads and writes the binary product snapshot format.
+ * A snapshot holds the same seven columns as the product CSV, already
+ * parsed, so loading it needs no splitting and no number parsing.
+ *
+ * <pre>
+ * header : magic "PSNP" | int version | long row count | long CRC32 of body
+ * row    : id | name | double price | stockStatus | double rating | description | customerReview
+ * string : int byte length | UTF-8 bytes
+ * </pre>
+ *
+ * All numbers are big-endian. Snapshots up to 2 GB are memory-mapped in
+ * one piece; larger ones are read through a sliding buffer.
+ */
+public final class ProductSnapshot {
+
+    /** The file extension that marks a snapshot instead of a CSV file. */
+    public static final String EXTENSION = ".bin";
+
+    private static final int MAGIC = 0x50534E50; // "PSNP"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 8;
+    private static final int WINDOW_BYTES = 1 << 30;
+    private static final int READ_BUFFER_BYTES = 1 << 20;
+
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private ProductSnapshot() {}
+
+    /**
+     * Checks whether a filename names a snapshot rather than a CSV file.
+     *
+     * @param filename The path to check.
+     * @return true if the file has the snapshot extension.
+     */
+    public static boolean isSnapshot(String filename) {
+        return filename.endsWith(EXTENSION);
+    }
+
+    /**
+     * Converts a product CSV file into a snapshot.
+     *
+     * @param csvFilename      The CSV file to read.
+     * @param snapshotFilename The snapshot file to create or replace.
+     * @return The number of rows written.
+     * @throws IOException if either file cannot be read or written.
+     */
+    public static long write(String csvFilename, String snapshotFilename) throws IOException {
+        Path target = Paths.get(snapshotFilename);
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.position(HEADER_BYTES);
+            CRC32 crc = new CRC32();
+            long[] rows = {0};
+
+            // The body stream is only flushed, never closed, so the channel
+            // stays open for the header to be written last
+            OutputStream body = new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16);
+            DataOutputStream out = new DataOutputStream(new CheckedOutputStream(body, crc));
+            try {
+                ProductReader.read(csvFilename, p -> {
+                    try {
+                        writeString(out, p.getId());
+                        writeString(out, p.getName());
+                        out.writeDouble(p.getPrice());
+                        writeString(out, p.getStockStatus());
+                        out.writeDouble(p.getRating());
+                        writeString(out, p.getDescription());
+                        writeString(out, p.getCustomerReview());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    rows[0]++;
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            out.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(MAGIC).putInt(VERSION).putLong(rows[0]).putLong(crc.getValue()).flip();
+            channel.write(header, 0);
+            return rows[0];
+        }
+    }
+
+    /**
+     * Streams every product in a snapshot to the given action, after
+     * checking the header and the body checksum.
+     *
+     * @param filename The path to the snapshot file.
+     * @param action   The callback that receives each product.
+     * @throws IOException if the file cannot be read or is not a valid snapshot.
+     */
+    public static void read(String filename, Consumer<Product> action) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                throw new IOException("Not a product snapshot: " + filename);
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+                // keep reading until the header is complete
+            }
+            header.flip();
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Not a product snapshot: " + filename);
+            }
+            long rowCount = header.getLong();
+            long checksum = header.getLong();
+            if (checksum(channel, size) != checksum) {
+                throw new IOException("Snapshot checksum mismatch: " + filename);
+            }
+
+            Input in = new Input(channel, size);
+            byte[] scratch = new byte[256];
+            for (long row = 0; row < rowCount; row++) {
+                String id = in.readString(scratch);
+                String name = in.readString(scratch);
+                double price = in.readDouble();
+                String stockStatus = in.readString(scratch).intern(); // shared, as in ProductReader
+                double rating = in.readDouble();
+                String description = in.readString(scratch);
+                String customerReview = in.readString(scratch);
+                action.accept(new Product(id, name, price, stockStatus, rating, description, customerReview));
+            }
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Computes the CRC32 of everything after the header, one mapped window
+     * at a time.
+     */
+    private static long checksum(FileChannel channel, long size) throws IOException {
+        CRC32 crc = new CRC32();
+        for (long position = HEADER_BYTES; position < size; position += WINDOW_BYTES) {
+            long length = Math.min(WINDOW_BYTES, size - position);
+            crc.update(channel.map(FileChannel.MapMode.READ_ONLY, position, length));
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * The body of a snapshot, either mapped in one piece or read through a
+     * buffer that is refilled from the channel as rows are consumed.
+     */
+    private static final class Input {
+        private final FileChannel channel;
+        private final boolean mapped;
+        private final ByteBuffer buffer;
+
+        Input(FileChannel channel, long size) throws IOException {
+            this.channel = channel;
+            this.mapped = size - HEADER_BYTES <= Integer.MAX_VALUE;
+            if (mapped) {
+                this.buffer = channel.map(FileChannel.MapMode.READ_ONLY,
+                        HEADER_BYTES, size - HEADER_BYTES);
+            } else {
+                channel.position(HEADER_BYTES);
+                this.buffer = ByteBuffer.allocateDirect(READ_BUFFER_BYTES);
+                this.buffer.flip();
+            }
+        }
+
+        double readDouble() throws IOException {
+            require(8);
+            return buffer.getDouble();
+        }
+
+        String readString(byte[] scratch) throws IOException {
+            require(4);
+            int length = buffer.getInt();
+            byte[] bytes = length <= scratch.length ? scratch : new byte[length];
+            int copied = 0;
+            while (copied < length) {
+                require(1);
+                int n = Math.min(length - copied, buffer.remaining());
+                buffer.get(bytes, copied, n);
+                copied += n;
+            }
+            return new String(bytes, 0, length, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Makes sure at least n bytes can be read from the buffer.
+         */
+        private void require(int n) throws IOException {
+            if (buffer.remaining() >= n) {
+                return;
+            }
+            if (!mapped) {
+                buffer.compact();
+                while (buffer.position() < n && channel.read(buffer) >= 0) {
+                    // keep filling until n bytes are available or the file ends
+                }
+                buffer.flip();
+                if (buffer.remaining() >= n) {
+                    return;
+                }
+            }
+            throw new IOException("Truncated product snapshot");
+        }
+    }
+}
@@ -0,0 +1,414 @@
+package com.example.hw;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A column-oriented, read-only table of products.
+ * Prices and ratings are stored in primitive double arrays and the stock
+ * status is dictionary-encoded, so range filters run as tight loops over
+ * primitives. The text columns are kept in separate arrays and a Product
+ * object is only created for a row when {@link #getProduct(int)} is called.
+ * Optional sorted indexes on price and rating let selective range filters
+ * skip straight to the qualifying rows, and per-column statistics decide
+ * the order of a full scan's predicates.
+ * Instances are created with the {@link Builder}.
+ */
+public final class ProductTable {
+
+    private final int size;
+    private final double[] prices;
+    private final double[] ratings;
+    private final int[] statusCodes;
+    private final String[] statusDictionary;
+    private final String[] ids;
+    private final String[] names;
+    private final String[] descriptions;
+    private final String[] customerReviews;
+
+    /**
+     * Index lookups only pay off when they avoid most of the table; above
+     * this fraction of candidate rows a sequential scan is used instead.
+     */
+    private static final int INDEX_SELECTIVITY_DIVISOR = 8;
+
+    /** The number of names tested to estimate how selective a name pattern is. */
+    private static final int NAME_SAMPLE_SIZE = 256;
+
+    /** The relative cost of testing one row against a price or rating range. */
+    private static final double RANGE_COST = 1.0;
+
+    private final ColumnStatistics priceStatistics;
+    private final ColumnStatistics ratingStatistics;
+    private final String[] nameSample;
+
+    /** Whether any name holds a character that '.' does not match, so {@code .*} can reject it. */
+    private final boolean nameLineTerminators;
+
+    private volatile SortedColumnIndex priceIndex;
+    private volatile SortedColumnIndex ratingIndex;
+
+    /**
+     * Private constructor to be used by the Builder.
+     * @param builder The builder holding the column data.
+     */
+    private ProductTable(Builder builder) {
+        this.size = builder.size;
+        this.prices = Arrays.copyOf(builder.prices, size);
+        this.ratings = Arrays.copyOf(builder.ratings, size);
+        this.statusCodes = Arrays.copyOf(builder.statusCodes, size);
+        this.statusDictionary = builder.statusDictionary.toArray(new String[0]);
+        this.ids = Arrays.copyOf(builder.ids, size);
+        this.names = Arrays.copyOf(builder.names, size);
+        this.descriptions = Arrays.copyOf(builder.descriptions, size);
+        this.customerReviews = Arrays.copyOf(builder.customerReviews, size);
+        this.priceStatistics = new ColumnStatistics(prices);
+        this.ratingStatistics = new ColumnStatistics(ratings);
+        boolean lineTerminators = false;
+        for (int row = 0; row < size && !lineTerminators; row++) {
+            lineTerminators = NameMatcher.hasLineTerminator(names[row], 0, names[row].length());
+        }
+        this.nameLineTerminators = lineTerminators;
+        this.nameSample = new String[Math.min(size, NAME_SAMPLE_SIZE)];
+        for (int i = 0; i < nameSample.length; i++) {
+            nameSample[i] = names[(int) ((long) i * size / nameSample.length)];
+        }
+    }
+
+    // Column accessors
+    public int size() { return size; }
+    public double getPrice(int row) { return prices[row]; }
+    public double getRating(int row) { return ratings[row]; }
+    public int getStatusCode(int row) { return statusCodes[row]; }
+    public String getStockStatus(int row) { return statusDictionary[statusCodes[row]]; }
+    public String getId(int row) { return ids[row]; }
+    public String getName(int row) { return names[row]; }
+
+    /** @return The statistics of the price column. */
+    public ColumnStatistics getPriceStatistics() { return priceStatistics; }
+
+    /** @return The statistics of the rating column. */
+    public ColumnStatistics getRatingStatistics() { return ratingStatistics; }
+
+    /** @return The distinct stock statuses, indexed by status code. */
+    public String[] getStatusDictionary() { return statusDictionary.clone(); }
+
+    /**
+     * Materialises a single row as a Product.
+     *
+     * @param row The row index.
+     * @return A new Product holding the row's values.
+     */
+    public Product getProduct(int row) {
+        return new Product(ids[row], names[row], prices[row], getStockStatus(row),
+                ratings[row], descriptions[row], customerReviews[row]);
+    }
+
+    /**
+     * Builds the sorted price and rating indexes, if they are not built yet.
+     * Once built, {@link #select(ProductFilter)} uses them for selective filters.
+     */
+    public synchronized void buildIndexes() {
+        if (priceIndex == null) {
+            ratingIndex = new SortedColumnIndex(ratings);
+            priceIndex = new SortedColumnIndex(prices);
+        }
+    }
+
+    /** @return true if the sorted indexes have been built. */
+    public boolean hasIndexes() { return priceIndex != null; }
+
+    /**
+     * Finds the rows that pass a filter, in table order.
+     * When the sorted indexes are built, the price and rating bounds are
+     * binary-searched and, if one of them narrows the table enough, only the
+     * rows in that range are tested, costing O(log n + k log k) for k
+     * candidates. Otherwise the table is scanned one predicate at a time in
+     * the order chosen by {@link #plan(ProductFilter)}. A filter that the
+     * column statistics prove can match nothing returns at once.
+     *
+     * @param filter The compiled report filter.
+     * @return The matching row indexes in ascending order.
+     */
+    public int[] select(ProductFilter filter) {
+        if (!canMatch(filter)) {
+            return new int[0];
+        }
+        SortedColumnIndex byPrice = priceIndex;
+        SortedColumnIndex byRating = ratingIndex;
+        if (byPrice != null) {
+            int priceFrom = byPrice.lowerBound(filter.getMinimumPrice());
+            int priceTo = byPrice.upperBound(filter.getMaximumPrice());
+            int ratingFrom = byRating.lowerBound(filter.getMinimumRating());
+            int ratingTo = byRating.upperBound(filter.getMaximumRating());
+            int priceCount = Math.max(0, priceTo - priceFrom);
+            int ratingCount = Math.max(0, ratingTo - ratingFrom);
+
+            if (priceCount <= ratingCount && priceCount <= size / INDEX_SELECTIVITY_DIVISOR) {
+                return selectRange(byPrice, priceFrom, priceTo, filter);
+            }
+            if (ratingCount < priceCount && ratingCount <= size / INDEX_SELECTIVITY_DIVISOR) {
+                return selectRange(byRating, ratingFrom, ratingTo, filter);
+            }
+        }
+        return scan(filter);
+    }
+
+    /**
+     * Tests only the rows in a sorted index range against the full filter and
+     * returns the survivors in table order.
+     */
+    private int[] selectRange(SortedColumnIndex index, int from, int to, ProductFilter filter) {
+        int[] rows = new int[Math.max(0, to - from)];
+        int count = 0;
+        for (int position = from; position < to; position++) {
+            int row = index.rowAt(position);
+            if (filter.test(prices[row], ratings[row], names[row])) {
+                rows[count++] = row;
+            }
+        }
+        Arrays.sort(rows, 0, count);
+        return Arrays.copyOf(rows, count);
+    }
+
+    /**
+     * Checks from the column statistics alone whether any row could pass
+     * the price and rating bounds of a filter. A false answer is exact.
+     *
+     * @param filter The compiled report filter.
+     * @return false if no row can match, without scanning the table.
+     */
+    public boolean canMatch(ProductFilter filter) {
+        return priceStatistics.canMatch(filter.getMinimumPrice(), filter.getMaximumPrice())
+                && ratingStatistics.canMatch(filter.getMinimumRating(), filter.getMaximumRating());
+    }
+
+    /**
+     * Chooses the order in which a scan applies the predicates of a filter.
+     * Each predicate's pass rate is estimated, from the histograms for the
+     * ranges and from a fixed sample of names for the name pattern, and the
+     * predicates run in ascending order of cost / (1 - pass rate), which
+     * minimises the expected work per row. A predicate that every row is
+     * known to pass is left out altogether.
+     *
+     * @param filter The compiled report filter.
+     * @return The predicates to apply, in order.
+     */
+    public List<ScanStep> plan(ProductFilter filter) {
+        List<ScanStep> steps = new ArrayList<>(3);
+        double minPrice = filter.getMinimumPrice();
+        double maxPrice = filter.getMaximumPrice();
+        if (!priceStatistics.matchesAll(minPrice, maxPrice)) {
+            steps.add(new ScanStep(ScanStep.Column.PRICE, RANGE_COST,
+                    priceStatistics.estimateFraction(minPrice, maxPrice)));
+        }
+        double minRating = filter.getMinimumRating();
+        double maxRating = filter.getMaximumRating();
+        if (!ratingStatistics.matchesAll(minRating, maxRating)) {
+            steps.add(new ScanStep(ScanStep.Column.RATING, RANGE_COST,
+                    ratingStatistics.estimateFraction(minRating, maxRating)));
+        }
+        NameMatcher nameMatcher = filter.getNameMatcher();
+        // ".*" rejects names with line terminators, so it is only free when there are none
+        if (nameMatcher.getKind() != NameMatcher.Kind.ANY || nameLineTerminators) {
+            int sampled = 0;
+            for (String name : nameSample) {
+                if (nameMatcher.matches(name)) {
+                    sampled++;
+                }
+            }
+            // Smoothed so a pattern that missed the whole sample is not taken as certain to fail
+            double passRate = (sampled + 1.0) / (nameSample.length + 2.0);
+            steps.add(new ScanStep(ScanStep.Column.NAME, nameCost(nameMatcher.getKind()), passRate));
+        }
+        steps.sort(Comparator.comparingDouble(ScanStep::getRank));
+        return steps;
+    }
+
+    /**
+     * Checks every row, one predicate at a time in the planned order: the
+     * first predicate runs over the whole table and each later one only over
+     * the rows still left, which are compacted in place and stay in table order.
+     */
+    private int[] scan(ProductFilter filter) {
+        int[] rows = null;
+        int count = size;
+        for (ScanStep step : plan(filter)) {
+            boolean first = rows == null;
+            if (first) {
+                rows = new int[size];
+            }
+            switch (step.getColumn()) {
+                case PRICE:
+                    count = keepRange(prices, filter.getMinimumPrice(), filter.getMaximumPrice(), rows, count, first);
+                    break;
+                case RATING:
+                    count = keepRange(ratings, filter.getMinimumRating(), filter.getMaximumRating(), rows, count, first);
+                    break;
+                default:
+                    count = keepNames(filter.getNameMatcher(), rows, count, first);
+                    break;
+            }
+        }
+        if (rows == null) {
+            rows = new int[size];
+            Arrays.setAll(rows, row -> row);
+            return rows;
+        }
+        return Arrays.copyOf(rows, count);
+    }
+
+    /**
+     * Keeps the rows whose value lies in [low, high]. On the first pass the
+     * candidates are all rows 0..count-1 rather than the contents of rows.
+     */
+    private static int keepRange(double[] column, double low, double high, int[] rows, int count, boolean first) {
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            int row = first ? i : rows[i];
+            double value = column[row];
+            if (value <= high & value >= low) {
+                rows[kept++] = row;
+            }
+        }
+        return kept;
+    }
+
+    /** Keeps the rows whose name matches, like {@link #keepRange}. */
+    private int keepNames(NameMatcher matcher, int[] rows, int count, boolean first) {
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            int row = first ? i : rows[i];
+            if (matcher.matches(names[row])) {
+                rows[kept++] = row;
+            }
+        }
+        return kept;
+    }
+
+    /** The relative cost of matching one name, by the kind of pattern. */
+    private static double nameCost(NameMatcher.Kind kind) {
+        switch (kind) {
+            case LITERAL:
+                return 2.0;
+            case PREFIX:
+                return 3.0;
+            case CONTAINS:
+                return 8.0;
+            default:
+                return 30.0;
+        }
+    }
+
+    /**
+     * One predicate of a planned scan, with its relative cost per row and
+     * its estimated pass rate.
+     */
+    public static final class ScanStep {
+
+        /** The column a predicate tests. */
+        public enum Column { PRICE, RATING, NAME }
+
+        private final Column column;
+        private final double cost;
+        private final double passRate;
+
+        ScanStep(Column column, double cost, double passRate) {
+            this.column = column;
+            this.cost = cost;
+            this.passRate = passRate;
+        }
+
+        /** @return The column the predicate tests. */
+        public Column getColumn() { return column; }
+
+        /** @return The relative cost of testing one row. */
+        public double getCost() { return cost; }
+
+        /** @return The estimated fraction of rows that pass. */
+        public double getPassRate() { return passRate; }
+
+        /**
+         * @return The cost of the predicate per row it removes; cheaper and
+         *         more selective predicates have a lower rank and run first.
+         */
+        double getRank() {
+            return passRate >= 1.0 ? Double.POSITIVE_INFINITY : cost / (1.0 - passRate);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s (cost %.0f, pass %.3f)", column, cost, passRate);
+        }
+    }
+
+    /**
+     * The Builder class for creating ProductTable instances.
+     * Rows are appended one at a time and the columns grow as needed.
+     */
+    public static class Builder {
+        private int size;
+        private double[] prices = new double[16];
+        private double[] ratings = new double[16];
+        private int[] statusCodes = new int[16];
+        private String[] ids = new String[16];
+        private String[] names = new String[16];
+        private String[] descriptions = new String[16];
+        private String[] customerReviews = new String[16];
+        private final Map<String, Integer> statusLookup = new HashMap<>();
+        private final List<String> statusDictionary = new ArrayList<>();
+
+        /**
+         * Appends a product as a new row.
+         * @param p The product to add.
+         * @return The builder instance for chaining.
+         */
+        public Builder add(Product p) {
+            if (size == prices.length) {
+                grow();
+            }
+            prices[size] = p.getPrice();
+            ratings[size] = p.getRating();
+            statusCodes[size] = statusCode(p.getStockStatus());
+            ids[size] = p.getId();
+            names[size] = p.getName();
+            descriptions[size] = p.getDescription();
+            customerReviews[size] = p.getCustomerReview();
+            size++;
+            return this;
+        }
+
+        /**
+         * Builds and returns an immutable ProductTable.
+         * @return A new ProductTable holding the added rows.
+         */
+        public ProductTable build() {
+            return new ProductTable(this);
+        }
+
+        private int statusCode(String status) {
+            Integer code = statusLookup.get(status);
+            if (code == null) {
+                code = statusDictionary.size();
+                statusLookup.put(status, code);
+                statusDictionary.add(status);
+            }
+            return code;
+        }
+
+        private void grow() {
+            int capacity = prices.length * 2;
+            prices = Arrays.copyOf(prices, capacity);
+            ratings = Arrays.copyOf(ratings, capacity);
+            statusCodes = Arrays.copyOf(statusCodes, capacity);
+            ids = Arrays.copyOf(ids, capacity);
+            names = Arrays.copyOf(names, capacity);
+            descriptions = Arrays.copyOf(descriptions, capacity);
+            customerReviews = Arrays.copyOf(customerReviews, capacity);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.hw;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * A mergeable streaming quantile sketch in bounded memory.
+ * This is a KLL-style sketch: values enter a stack of compactors, and when
+ * a level is full it is sorted and every other value is promoted to the next
+ * level with twice the weight. Level capacities shrink geometrically below
+ * the top, so the sketch keeps O(k) values for any number of inputs and the
+ * rank error of a quantile query is roughly 1.7 / k. Sketches built over
+ * separate chunks of a file can be merged.
+ */
+public final class QuantileSketch {
+
+    private static final double CAPACITY_DECAY = 2.0 / 3.0;
+    private static final int MIN_LEVEL_CAPACITY = 2;
+
+    private final int k;
+    private final SplittableRandom random;
+    private final List<double[]> levels = new ArrayList<>();
+    private int[] sizes = new int[0];
+    private int retained;
+    private int totalCapacity;
+    private long count;
+
+    /**
+     * Creates an empty sketch.
+     *
+     * @param k    The accuracy parameter; larger is more accurate and uses more memory.
+     * @param seed The seed for the random compaction offsets, for repeatable results.
+     */
+    public QuantileSketch(int k, long seed) {
+        this.k = k;
+        this.random = new SplittableRandom(seed);
+        addLevel();
+    }
+
+    /**
+     * Adds a value to the sketch. NaN values are ignored.
+     *
+     * @param value The value to add.
+     */
+    public void accept(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        append(0, value);
+        count++;
+        compressWhileFull();
+    }
+
+    /**
+     * Merges another sketch into this one.
+     *
+     * @param other The sketch to merge in.
+     * @return This sketch.
+     */
+    public QuantileSketch merge(QuantileSketch other) {
+        for (int level = 0; level < other.levels.size(); level++) {
+            double[] values = other.levels.get(level);
+            for (int i = 0; i < other.sizes[level]; i++) {
+                append(level, values[i]);
+            }
+        }
+        count += other.count;
+        compressWhileFull();
+        return this;
+    }
+
+    /** @return The number of values added, including merged sketches. */
+    public long getCount() { return count; }
+
+    /**
+     * Estimates the value at a quantile.
+     *
+     * @param q The quantile, between 0 and 1.
+     * @return The estimated value, or NaN if the sketch is empty.
+     */
+    public double quantile(double q) {
+        if (retained == 0) {
+            return Double.NaN;
+        }
+        double[] values = new double[retained];
+        long[] weights = new long[retained];
+        int n = 0;
+        for (int level = 0; level < levels.size(); level++) {
+            double[] items = levels.get(level);
+            for (int i = 0; i < sizes[level]; i++) {
+                values[n] = items[i];
+                weights[n] = 1L << level;
+                n++;
+            }
+        }
+
+        // Sort the (value, weight) pairs by value
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+
+        long totalWeight = 0;
+        for (long weight : weights) {
+            totalWeight += weight;
+        }
+        double target = q * totalWeight;
+        long cumulative = 0;
+        for (int i : order) {
+            cumulative += weights[i];
+            if (cumulative >= target) {
+                return values[i];
+            }
+        }
+        return values[order[n - 1]];
+    }
+
+    private void compressWhileFull() {
+        while (retained > totalCapacity) {
+            compressOneLevel();
+        }
+    }
+
+    /**
+     * Compacts the lowest level that is at or over its capacity: the level is
+     * sorted, every other value from a random offset moves up one level, and
+     * an odd value left over stays behind.
+     */
+    private void compressOneLevel() {
+        for (int level = 0; level < levels.size(); level++) {
+            int size = sizes[level];
+            if (size < capacity(level)) {
+                continue;
+            }
+            if (level + 1 == levels.size()) {
+                addLevel();
+            }
+            double[] items = levels.get(level);
+            Arrays.sort(items, 0, size);
+            int start = size % 2; // keep the smallest value behind when the size is odd
+            int offset = random.nextBoolean() ? 1 : 0;
+            for (int i = start + offset; i < size; i += 2) {
+                append(level + 1, items[i]);
+            }
+            retained -= size - start;
+            sizes[level] = start;
+            return;
+        }
+    }
+
+    private int capacity(int level) {
+        int depth = levels.size() - 1 - level;
+        return Math.max(MIN_LEVEL_CAPACITY, (int) Math.ceil(k * Math.pow(CAPACITY_DECAY, depth)));
+    }
+
+    private void append(int level, double value) {
+        while (level >= levels.size()) {
+            addLevel();
+        }
+        double[] items = levels.get(level);
+        int size = sizes[level];
+        if (size == items.length) {
+            items = Arrays.copyOf(items, items.length * 2);
+            levels.set(level, items);
+        }
+        items[size] = value;
+        sizes[level] = size + 1;
+        retained++;
+    }
+
+    /**
+     * Adds an empty level on top. Every level's capacity depends on its
+     * depth below the top, so the total capacity is recomputed here.
+     */
+    private void addLevel() {
+        levels.add(new double[Math.max(MIN_LEVEL_CAPACITY, k)]);
+        sizes = Arrays.copyOf(sizes, levels.size());
+        totalCapacity = 0;
+        for (int level = 0; level < levels.size(); level++) {
+            totalCapacity += capacity(level);
+        }
+    }
+}
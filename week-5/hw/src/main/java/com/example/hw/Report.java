@@ -1,3 +1,6 @@
+package com.example.hw;
+
+import java.io.IOException;
 import java.io.PrintStream;
 
 /**
@@ -14,4 +17,19 @@ public interface Report {
      * @param reportSpecs The specifications (filters, filename) for the report.
      */
     void generate(PrintStream ps, ReportSpecs reportSpecs);
+
+    /**
+     * Generates a report like {@link #generate(PrintStream, ReportSpecs)},
+     * but throws a failure to read the input file instead of printing it,
+     * so the caller can tell a complete report from one cut short. The
+     * output written before the failure is the same in both cases.
+     * The default simply calls generate, for reports that read no files.
+     *
+     * @param ps          The PrintStream to which the report will be written.
+     * @param reportSpecs The specifications (filters, filename) for the report.
+     * @throws IOException if the input file cannot be read.
+     */
+    default void generateChecked(PrintStream ps, ReportSpecs reportSpecs) throws IOException {
+        generate(ps, reportSpecs);
+    }
 }
\ No newline at end of file
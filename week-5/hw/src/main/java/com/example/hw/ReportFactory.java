@@ -1,7 +1,18 @@
+package com.example.hw;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * A factory for creating different types of Report objects.
  * This class uses a static factory method to decouple the client
- * from the concrete report implementations (DetailReport, SummaryReport).
+ * from the concrete report implementations (DetailReport, SummaryReport,
+ * ApproxSummaryReport, TopKReport, GroupedReport).
+ * It also offers a batch entry point that runs several reports over the
+ * same file with one shared scan.
  */
 public class ReportFactory {
 
@@ -14,7 +25,8 @@ public class ReportFactory {
      * Creates and returns a Report object based on the specified type.
      *
      * @param reportType A string indicating the type of report to create.
-     *                   Valid options are "DETAIL" and "SUMMARY". Case-insensitive.
+     *                   Valid options are "DETAIL", "SUMMARY", "APPROX_SUMMARY",
+     *                   "TOPK" and "GROUPED". Case-insensitive.
      * @return An object that implements the Report interface.
      * @throws IllegalArgumentException if the reportType is unknown.
      */
@@ -26,8 +38,119 @@ public class ReportFactory {
             return new DetailReport();
         } else if (reportType.equalsIgnoreCase("SUMMARY")) {
             return new SummaryReport();
+        } else if (reportType.equalsIgnoreCase("APPROX_SUMMARY")) {
+            return new ApproxSummaryReport();
+        } else if (reportType.equalsIgnoreCase("TOPK")) {
+            return new TopKReport();
+        } else if (reportType.equalsIgnoreCase("GROUPED")) {
+            return new GroupedReport();
         }
 
         throw new IllegalArgumentException("Unknown report type: " + reportType);
     }
+
+    /**
+     * Creates a Report of the specified type whose output is served from,
+     * and stored in, the given cache.
+     *
+     * @param reportType A string indicating the type of report to create,
+     *                   as accepted by {@link #getReport(String)}.
+     * @param cache      The cache of finished reports.
+     * @return A caching Report, or null if reportType is null.
+     * @throws IllegalArgumentException if the reportType is unknown.
+     */
+    public static Report getReport(String reportType, ReportResultCache cache) {
+        Report report = getReport(reportType);
+        return report == null ? null : new CachingReport(reportType, report, cache);
+    }
+
+    /**
+     * Generates a batch of reports over the same file with a single scan.
+     * Every row is read once, tested against the specifications of each
+     * report and routed to the sink of every report it matches. Each report
+     * is buffered separately and written to the PrintStream in request
+     * order, so the output is the same as generating the reports one by one.
+     *
+     * @param ps       The PrintStream to which the reports will be written.
+     * @param requests The report types and specifications to generate.
+     * @throws IllegalArgumentException if a report type is unknown or the
+     *                                  requests do not all name the same file.
+     */
+    public static void generateBatch(PrintStream ps, List<ReportRequest> requests) {
+        if (requests.isEmpty()) {
+            return;
+        }
+        String filename = requests.get(0).getReportSpecs().getFilename();
+
+        int count = requests.size();
+        ByteArrayOutputStream[] buffers = new ByteArrayOutputStream[count];
+        List<ProductFilter> filters = new ArrayList<>();
+        List<ReportSink> sinks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ReportRequest request = requests.get(i);
+            ReportSpecs specs = request.getReportSpecs();
+            if (!specs.getFilename().equals(filename)) {
+                throw new IllegalArgumentException("Batch reports must share one file: "
+                        + filename + " != " + specs.getFilename());
+            }
+            Report report = getReport(request.getReportType());
+            buffers[i] = new ByteArrayOutputStream();
+            PrintStream out = new PrintStream(buffers[i], true);
+            if (report instanceof StreamingReport) {
+                filters.add(specs.getFilter());
+                sinks.add(((StreamingReport) report).open(out, specs));
+            } else {
+                report.generate(out, specs);
+            }
+        }
+
+        scanShared(filename, filters.toArray(new ProductFilter[0]), sinks.toArray(new ReportSink[0]));
+        sinks.forEach(ReportSink::finish);
+
+        for (ByteArrayOutputStream buffer : buffers) {
+            ps.write(buffer.toByteArray(), 0, buffer.size());
+        }
+        ps.flush();
+    }
+
+    /**
+     * Reads every row of a file once and hands it to each sink whose filter
+     * it passes. A Product is only materialised for rows that some report
+     * wants, and at most once per row.
+     */
+    private static void scanShared(String filename, ProductFilter[] filters, ReportSink[] sinks) {
+        if (sinks.length == 0) {
+            return;
+        }
+        try {
+            if (ProductCatalog.isOversized(filename)) {
+                ProductReader.read(filename, p -> {
+                    for (int i = 0; i < filters.length; i++) {
+                        if (filters[i].test(p)) {
+                            sinks[i].accept(p);
+                        }
+                    }
+                });
+                return;
+            }
+
+            ProductTable table = ProductCatalog.load(filename).getTable();
+            for (int row = 0; row < table.size(); row++) {
+                double price = table.getPrice(row);
+                double rating = table.getRating(row);
+                String name = table.getName(row);
+                Product product = null;
+                for (int i = 0; i < filters.length; i++) {
+                    if (filters[i].test(price, rating, name)) {
+                        if (product == null) {
+                            product = table.getProduct(row);
+                        }
+                        sinks[i].accept(product);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading file: " + e.getMessage());
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,28 @@
+package com.example.hw;
+
+/**
+ * A single entry of a report batch: the type of report to create and the
+ * specifications to run it with.
+ */
+public class ReportRequest {
+
+    private final String reportType;
+    private final ReportSpecs reportSpecs;
+
+    /**
+     * Constructs a new ReportRequest.
+     *
+     * @param reportType  The report type, as accepted by ReportFactory.getReport.
+     * @param reportSpecs The specifications for the report.
+     */
+    public ReportRequest(String reportType, ReportSpecs reportSpecs) {
+        this.reportType = reportType;
+        this.reportSpecs = reportSpecs;
+    }
+
+    /** @return The report type. */
+    public String getReportType() { return reportType; }
+
+    /** @return The specifications for the report. */
+    public ReportSpecs getReportSpecs() { return reportSpecs; }
+}
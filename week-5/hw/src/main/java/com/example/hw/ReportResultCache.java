@@ -0,0 +1,288 @@
+package com.example.hw;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches the finished output of reports, so an identical request is
+ * answered without scanning the file again.
+ *
+ * Entries are keyed by the report type, the real path, size and
+ * last-modified time of the input file, the default charset and locale,
+ * and the canonical form of the ReportSpecs, so changing the file, the
+ * file its name resolves to, the platform encoding or any specification
+ * misses the cache. The memory tier evicts
+ * the least recently used entries once their total size exceeds its byte
+ * budget. An optional disk tier keeps every entry in a directory, also
+ * under a byte budget, so the cache survives restarts.
+ */
+public final class ReportResultCache {
+
+    private static final String SUFFIX = ".report";
+
+    private final long maxMemoryBytes;
+    private final Path directory;
+    private final long maxDiskBytes;
+    private final LinkedHashMap<String, byte[]> memory = new LinkedHashMap<>(16, 0.75f, true);
+    private long memoryBytes;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Creates a cache that lives in memory only.
+     *
+     * @param maxMemoryBytes The most report bytes to keep in memory.
+     */
+    public ReportResultCache(long maxMemoryBytes) {
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.directory = null;
+        this.maxDiskBytes = 0;
+    }
+
+    /**
+     * Creates a cache with a disk tier in the given directory. Entries
+     * already in the directory from an earlier run are served as well.
+     *
+     * @param maxMemoryBytes The most report bytes to keep in memory.
+     * @param directory      The directory for the disk tier, created if missing.
+     * @param maxDiskBytes   The most report bytes to keep on disk.
+     * @throws IOException if the directory cannot be created.
+     */
+    public ReportResultCache(long maxMemoryBytes, String directory, long maxDiskBytes) throws IOException {
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.directory = Files.createDirectories(Paths.get(directory));
+        this.maxDiskBytes = maxDiskBytes;
+    }
+
+    /**
+     * Builds the cache key for a report, or returns null if the input file
+     * cannot be examined.
+     *
+     * @param reportType  The report type, as accepted by ReportFactory.getReport.
+     * @param reportSpecs The specifications for the report.
+     * @return The key, or null if the file's path, size or time cannot be read.
+     */
+    public static String keyFor(String reportType, ReportSpecs reportSpecs) {
+        try {
+            // The file the name resolves to, so repointing a link or changing
+            // the working directory misses even if size and time happen to match
+            Path path = Paths.get(reportSpecs.getFilename()).toRealPath();
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            String realPath = path.toString();
+            // Rows are decoded and reports encoded with the default charset
+            String charset = Charset.defaultCharset().name();
+            String locale = Locale.getDefault().toLanguageTag();
+            return "report=" + reportType.toUpperCase(Locale.ROOT)
+                    + ";path=" + realPath.length() + ":" + realPath
+                    + ";size=" + attributes.size()
+                    + ";modified=" + attributes.lastModifiedTime().toMillis()
+                    + ";charset=" + charset
+                    + ";locale=" + locale
+                    + ";" + reportSpecs.toCanonicalString();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the cached output for a key, looking in memory first and then
+     * on disk. A disk hit is copied back into memory.
+     *
+     * @param key The cache key.
+     * @return The report bytes, or null if the key is not cached.
+     */
+    public byte[] get(String key) {
+        byte[] output;
+        synchronized (this) {
+            output = memory.get(key);
+        }
+        if (output == null && directory != null) {
+            output = readDisk(key);
+            if (output != null) {
+                putMemory(key, output);
+            }
+        }
+        (output != null ? hits : misses).incrementAndGet();
+        return output;
+    }
+
+    /**
+     * Stores the output of a report in both tiers.
+     *
+     * @param key    The cache key.
+     * @param output The report bytes. The array must not be changed afterwards.
+     */
+    public void put(String key, byte[] output) {
+        putMemory(key, output);
+        if (directory != null) {
+            writeDisk(key, output);
+        }
+    }
+
+    /** Empties the memory tier and deletes every entry of the disk tier. */
+    public void clear() {
+        synchronized (this) {
+            memory.clear();
+            memoryBytes = 0;
+        }
+        if (directory != null) {
+            for (Path file : diskEntries()) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    System.err.println("Error deleting cached report: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /** @return The number of lookups answered from either tier. */
+    public long getHits() { return hits.get(); }
+
+    /** @return The number of lookups that found nothing. */
+    public long getMisses() { return misses.get(); }
+
+    /** @return The number of report bytes held in memory. */
+    public synchronized long getMemoryBytes() { return memoryBytes; }
+
+    private synchronized void putMemory(String key, byte[] output) {
+        if (output.length > maxMemoryBytes) {
+            return;
+        }
+        byte[] previous = memory.put(key, output);
+        memoryBytes += output.length - (previous == null ? 0 : previous.length);
+        Iterator<byte[]> eldest = memory.values().iterator();
+        while (memoryBytes > maxMemoryBytes) {
+            memoryBytes -= eldest.next().length;
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Reads a disk entry and checks that it really holds the key, so a
+     * digest collision can never return the wrong report. A hit refreshes
+     * the file time, which the disk tier uses as its recency order.
+     */
+    private byte[] readDisk(String key) {
+        Path file = diskFile(key);
+        try (InputStream in = Files.newInputStream(file)) {
+            DataInputStream data = new DataInputStream(in);
+            byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+            if (data.readInt() != keyBytes.length) {
+                return null;
+            }
+            byte[] storedKey = new byte[keyBytes.length];
+            data.readFully(storedKey);
+            if (!Arrays.equals(storedKey, keyBytes)) {
+                return null;
+            }
+            byte[] output = data.readAllBytes();
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return output;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            System.err.println("Error reading cached report: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Writes a disk entry through a temporary file so readers never see a
+     * partial entry, then trims the tier back under its budget.
+     */
+    private void writeDisk(String key, byte[] output) {
+        if (output.length > maxDiskBytes) {
+            return;
+        }
+        Path file = diskFile(key);
+        try {
+            Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                DataOutputStream data = new DataOutputStream(out);
+                byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+                data.writeInt(keyBytes.length);
+                data.write(keyBytes);
+                data.write(output);
+                data.flush();
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            trimDisk();
+        } catch (IOException e) {
+            System.err.println("Error writing cached report: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Deletes the least recently used disk entries until the tier fits its
+     * budget.
+     */
+    private void trimDisk() throws IOException {
+        List<Path> files = diskEntries();
+        List<FileTime> times = new ArrayList<>();
+        long total = 0;
+        for (Path file : files) {
+            total += Files.size(file);
+            times.add(Files.getLastModifiedTime(file));
+        }
+        if (total <= maxDiskBytes) {
+            return;
+        }
+        Integer[] order = new Integer[files.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> times.get(a).compareTo(times.get(b)));
+        for (int i = 0; i < order.length && total > maxDiskBytes; i++) {
+            Path file = files.get(order[i]);
+            total -= Files.size(file);
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private List<Path> diskEntries() {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            stream.forEach(files::add);
+        } catch (IOException e) {
+            System.err.println("Error listing cached reports: " + e.getMessage());
+        }
+        return files;
+    }
+
+    /** Names a disk entry by the SHA-256 digest of its key. */
+    private Path diskFile(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            StringBuilder name = new StringBuilder(digest.length * 2 + SUFFIX.length());
+            for (byte b : digest) {
+                name.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return directory.resolve(name.append(SUFFIX).toString());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.hw;
+
+/**
+ * Receives the rows of a single report as they are found.
+ * A sink is opened for one report, fed every matching product in file
+ * order, and finished once the scan is complete.
+ */
+public interface ReportSink {
+
+    /**
+     * Adds a product that passed the report's filter.
+     *
+     * @param p The matching product.
+     */
+    void accept(Product p);
+
+    /**
+     * Completes the report, writing any totals or trailer lines.
+     */
+    void finish();
+}
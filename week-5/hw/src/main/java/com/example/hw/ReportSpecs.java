@@ -1,15 +1,26 @@
+package com.example.hw;
+
 /**
  * Stores the specifications for generating a report.
  * This class is immutable and is constructed using the Builder pattern.
  */
 public class ReportSpecs {
 
+    /**
+     * The column that ranked reports, such as the TOPK report, sort by.
+     */
+    public enum SortKey { PRICE, RATING }
+
     private final String filename;
     private final double maximumPrice;
     private final double minimumPrice;
     private final double maximumRating;
     private final double minimumRating;
     private final String nameRegex;
+    private final SortKey sortKey;
+    private final boolean descending;
+    private final int limit;
+    private final ProductFilter filter;
 
     /**
      * Private constructor to be used by the Builder.
@@ -22,6 +33,10 @@ public class ReportSpecs {
         this.maximumRating = builder.maximumRating;
         this.minimumRating = builder.minimumRating;
         this.nameRegex = builder.nameRegex;
+        this.sortKey = builder.sortKey;
+        this.descending = builder.descending;
+        this.limit = builder.limit;
+        this.filter = new ProductFilter(this);
     }
 
     // Getters for all specification fields
@@ -31,6 +46,31 @@ public class ReportSpecs {
     public double getMaximumRating() { return maximumRating; }
     public double getMinimumRating() { return minimumRating; }
     public String getNameRegex() { return nameRegex; }
+    public SortKey getSortKey() { return sortKey; }
+    public boolean isDescending() { return descending; }
+    public int getLimit() { return limit; }
+
+    /**
+     * Returns the filter compiled from these specifications.
+     * The filter is built once when the specifications are built.
+     * @return The fused row predicate.
+     */
+    public ProductFilter getFilter() { return filter; }
+
+    /**
+     * Returns a canonical text form of these specifications, suitable as a
+     * lookup key. Two specs have the same canonical form exactly when every
+     * field is equal. Strings are length-prefixed so the form is unambiguous.
+     * @return The canonical form.
+     */
+    public String toCanonicalString() {
+        return "file=" + filename.length() + ":" + filename
+                + ";price=" + minimumPrice + ".." + maximumPrice
+                + ";rating=" + minimumRating + ".." + maximumRating
+                + ";name=" + nameRegex.length() + ":" + nameRegex
+                + ";sort=" + sortKey + (descending ? ":desc" : ":asc")
+                + ";limit=" + limit;
+    }
 
     /**
      * The Builder class for creating ReportSpecs instances.
@@ -46,6 +86,9 @@ public class ReportSpecs {
         private double maximumRating = 5.0;
         private double minimumRating = 0.0;
         private String nameRegex = ".*"; // Matches any string
+        private SortKey sortKey = SortKey.RATING;
+        private boolean descending = true; // Highest first
+        private int limit = 10;
 
         /**
          * Constructs a new Builder with the required filename.
@@ -108,9 +151,40 @@ public class ReportSpecs {
             return this;
         }
 
+        /**
+         * Sets the column and direction that ranked reports sort by.
+         * For example, RATING descending gives the best rated products and
+         * PRICE ascending gives the cheapest.
+         * @param key The column to sort by.
+         * @param descending true to put the highest values first.
+         * @return The builder instance for chaining.
+         */
+        public Builder sortBy(SortKey key, boolean descending) {
+            if (key == null) {
+                throw new IllegalArgumentException("Sort key cannot be null.");
+            }
+            this.sortKey = key;
+            this.descending = descending;
+            return this;
+        }
+
+        /**
+         * Sets how many rows ranked reports keep.
+         * @param limit The number of rows, at least 1.
+         * @return The builder instance for chaining.
+         */
+        public Builder limit(int limit) {
+            if (limit < 1) {
+                throw new IllegalArgumentException("Limit must be at least 1.");
+            }
+            this.limit = limit;
+            return this;
+        }
+
         /**
          * Builds and returns an immutable ReportSpecs object.
          * @return A new instance of ReportSpecs.
+         * @throws java.util.regex.PatternSyntaxException if the name regex is invalid.
          */
         public ReportSpecs build() {
             return new ReportSpecs(this);
@@ -0,0 +1,248 @@
+package com.example.hw;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+/**
+ * A buffered text writer for fixed-width report rows.
+ * It produces exactly the text of the equivalent {@code printf} patterns
+ * ({@code %-Ns}, {@code %-N.2f}, {@code %.2f} and {@code %n}) but pads columns
+ * and formats numbers by hand into one reusable buffer, so writing a row
+ * allocates no Formatter and boxes no doubles. Output goes either to a
+ * PrintStream or straight to a FileChannel.
+ */
+public final class ReportWriter implements Flushable {
+
+    /** The buffer is drained once it holds this many characters. */
+    private static final int FLUSH_THRESHOLD = 8192;
+
+    /** Above this magnitude the hand-written rounding is not guaranteed exact. */
+    private static final double FAST_PATH_LIMIT = 1e9;
+
+    /** How far from a rounding tie a value must be to take the fast path. */
+    private static final double TIE_MARGIN = 1e-4;
+
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private final StringBuilder buffer = new StringBuilder(FLUSH_THRESHOLD + 512);
+    private final PrintStream ps;
+    private final FileChannel channel;
+    private final CharsetEncoder encoder;
+    private final ByteBuffer bytes;
+    private final Locale locale;
+    private final boolean asciiDecimals;
+
+    /**
+     * Creates a writer that appends to a PrintStream, which does the encoding.
+     *
+     * @param ps The PrintStream to write to.
+     */
+    public ReportWriter(PrintStream ps) {
+        this(ps, null, null);
+    }
+
+    /**
+     * Creates a writer that encodes with the platform charset and writes
+     * straight to a FileChannel at its current position.
+     *
+     * @param channel The channel to write to.
+     */
+    public ReportWriter(FileChannel channel) {
+        this(channel, Charset.defaultCharset());
+    }
+
+    /**
+     * Creates a writer that encodes with the given charset and writes
+     * straight to a FileChannel at its current position.
+     *
+     * @param channel The channel to write to.
+     * @param charset The charset used to encode the text.
+     */
+    public ReportWriter(FileChannel channel, Charset charset) {
+        this(null, channel, charset);
+    }
+
+    private ReportWriter(PrintStream ps, FileChannel channel, Charset charset) {
+        this.ps = ps;
+        this.channel = channel;
+        // Replace unmappable characters the same way PrintStream does
+        this.encoder = charset == null ? null : charset.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.bytes = charset == null ? null : ByteBuffer.allocate(FLUSH_THRESHOLD * 4);
+        // printf formats with the default FORMAT locale; only take the hand
+        // formatting path when that locale uses '.' and ASCII digits.
+        this.locale = Locale.getDefault(Locale.Category.FORMAT);
+        DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale);
+        this.asciiDecimals = symbols.getDecimalSeparator() == '.' && symbols.getZeroDigit() == '0';
+    }
+
+    /**
+     * Writes a string as-is, like {@code %s}.
+     *
+     * @param s The text; null is written as "null".
+     * @return This writer for chaining.
+     */
+    public ReportWriter text(String s) {
+        buffer.append(s);
+        return this;
+    }
+
+    /**
+     * Writes a string left-justified in a column, like {@code %-Ns}.
+     * Longer strings are written in full, never truncated.
+     *
+     * @param s     The text; null is written as "null".
+     * @param width The minimum column width.
+     * @return This writer for chaining.
+     */
+    public ReportWriter padded(String s, int width) {
+        int start = buffer.length();
+        buffer.append(s);
+        pad(start, width);
+        return this;
+    }
+
+    /**
+     * Writes a number with two decimals, like {@code %.2f}.
+     *
+     * @param value The number to write.
+     * @return This writer for chaining.
+     */
+    public ReportWriter fixed2(double value) {
+        appendFixed2(value);
+        return this;
+    }
+
+    /**
+     * Writes a number with two decimals left-justified in a column,
+     * like {@code %-N.2f}.
+     *
+     * @param value The number to write.
+     * @param width The minimum column width.
+     * @return This writer for chaining.
+     */
+    public ReportWriter fixed2(double value, int width) {
+        int start = buffer.length();
+        appendFixed2(value);
+        pad(start, width);
+        return this;
+    }
+
+    /**
+     * Writes a single space between columns.
+     *
+     * @return This writer for chaining.
+     */
+    public ReportWriter space() {
+        buffer.append(' ');
+        return this;
+    }
+
+    /**
+     * Ends the current line, like {@code %n}, and drains the buffer when it
+     * has grown past its threshold.
+     */
+    public void newLine() {
+        buffer.append(LINE_SEPARATOR);
+        if (buffer.length() >= FLUSH_THRESHOLD) {
+            drain();
+        }
+    }
+
+    /**
+     * Writes all buffered text to the target and flushes it.
+     *
+     * @throws UncheckedIOException if writing to a FileChannel fails.
+     */
+    @Override
+    public void flush() {
+        drain();
+        if (ps != null) {
+            ps.flush();
+        }
+    }
+
+    private void pad(int start, int width) {
+        for (int written = buffer.length() - start; written < width; written++) {
+            buffer.append(' ');
+        }
+    }
+
+    /**
+     * Appends a value rounded HALF_UP to two decimals, matching Formatter.
+     * Values close enough to a rounding tie that binary representation error
+     * could change the result are handed to String.format instead.
+     */
+    private void appendFixed2(double value) {
+        double magnitude = Math.abs(value);
+        if (!asciiDecimals || !(magnitude < FAST_PATH_LIMIT)) {
+            buffer.append(String.format(locale, "%.2f", value));
+            return;
+        }
+        double scaled = magnitude * 100.0;
+        long whole = (long) scaled;
+        double fraction = scaled - whole;
+        if (Math.abs(fraction - 0.5) < TIE_MARGIN) {
+            buffer.append(String.format(locale, "%.2f", value));
+            return;
+        }
+        long cents = fraction > 0.5 ? whole + 1 : whole;
+
+        if (Double.doubleToRawLongBits(value) < 0) {
+            buffer.append('-');
+        }
+        buffer.append(cents / 100).append('.');
+        int remainder = (int) (cents % 100);
+        buffer.append((char) ('0' + remainder / 10)).append((char) ('0' + remainder % 10));
+    }
+
+    /**
+     * Moves the buffered characters to the PrintStream or FileChannel.
+     */
+    private void drain() {
+        if (buffer.length() == 0) {
+            return;
+        }
+        if (ps != null) {
+            ps.append(buffer);
+        } else {
+            try {
+                encodeTo(channel);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        buffer.setLength(0);
+    }
+
+    private void encodeTo(FileChannel target) throws IOException {
+        CharBuffer chars = CharBuffer.wrap(buffer);
+        encoder.reset();
+        while (encoder.encode(chars, bytes, true).isOverflow()) {
+            writeBytes(target);
+        }
+        while (encoder.flush(bytes).isOverflow()) {
+            writeBytes(target);
+        }
+        writeBytes(target);
+    }
+
+    private void writeBytes(FileChannel target) throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            target.write(bytes);
+        }
+        bytes.clear();
+    }
+}
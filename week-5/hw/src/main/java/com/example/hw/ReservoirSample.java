@@ -0,0 +1,128 @@
+package com.example.hw;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * A fixed-size uniform random sample of (price, rating) pairs.
+ * Uses reservoir sampling, so every row offered has the same chance of
+ * being kept no matter how many rows are seen, and memory stays at the
+ * sample capacity. Samples built over separate chunks of a file can be
+ * merged into a uniform sample of the combined rows.
+ */
+public final class ReservoirSample {
+
+    private final int capacity;
+    private final SplittableRandom random;
+    private double[] prices;
+    private double[] ratings;
+    private int size;
+    private long seen;
+
+    /**
+     * Creates an empty sample.
+     *
+     * @param capacity The maximum number of rows kept.
+     * @param seed     The seed for the random choices, for repeatable results.
+     */
+    public ReservoirSample(int capacity, long seed) {
+        this.capacity = capacity;
+        this.random = new SplittableRandom(seed);
+        this.prices = new double[Math.min(capacity, 1024)];
+        this.ratings = new double[prices.length];
+    }
+
+    /**
+     * Offers a row to the sample.
+     *
+     * @param price  The row's price.
+     * @param rating The row's rating.
+     */
+    public void accept(double price, double rating) {
+        seen++;
+        if (size < capacity) {
+            if (size == prices.length) {
+                grow();
+            }
+            prices[size] = price;
+            ratings[size] = rating;
+            size++;
+            return;
+        }
+        long slot = random.nextLong(seen);
+        if (slot < capacity) {
+            prices[(int) slot] = price;
+            ratings[(int) slot] = rating;
+        }
+    }
+
+    /**
+     * Merges another sample into this one. The result is a uniform sample of
+     * all rows seen by either: the number of rows drawn from each side
+     * follows the hypergeometric split of the two populations.
+     *
+     * @param other The sample to merge in.
+     * @return This sample.
+     */
+    public ReservoirSample merge(ReservoirSample other) {
+        int target = (int) Math.min(capacity, seen + other.seen);
+        long remainingHere = seen;
+        long remainingThere = other.seen;
+        int fromHere = 0;
+        for (int i = 0; i < target; i++) {
+            if (random.nextLong(remainingHere + remainingThere) < remainingHere) {
+                fromHere++;
+                remainingHere--;
+            } else {
+                remainingThere--;
+            }
+        }
+
+        double[] mergedPrices = new double[Math.max(target, 1)];
+        double[] mergedRatings = new double[mergedPrices.length];
+        pickInto(this, fromHere, mergedPrices, mergedRatings, 0);
+        pickInto(other, target - fromHere, mergedPrices, mergedRatings, fromHere);
+        prices = mergedPrices;
+        ratings = mergedRatings;
+        size = target;
+        seen += other.seen;
+        return this;
+    }
+
+    /** @return The number of rows kept in the sample. */
+    public int size() { return size; }
+
+    /** @return The number of rows offered to the sample. */
+    public long getSeen() { return seen; }
+
+    /** @return A copy of the sampled prices. */
+    public double[] getPrices() { return Arrays.copyOf(prices, size); }
+
+    /** @return A copy of the sampled ratings. */
+    public double[] getRatings() { return Arrays.copyOf(ratings, size); }
+
+    /**
+     * Copies a uniformly chosen subset of a sample's rows into the target
+     * arrays with a partial Fisher-Yates shuffle.
+     */
+    private void pickInto(ReservoirSample source, int count, double[] toPrices, double[] toRatings, int at) {
+        int[] order = new int[source.size];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        for (int i = 0; i < count; i++) {
+            int j = i + random.nextInt(order.length - i);
+            int row = order[j];
+            order[j] = order[i];
+            order[i] = row;
+            toPrices[at + i] = source.prices[row];
+            toRatings[at + i] = source.ratings[row];
+        }
+    }
+
+    private void grow() {
+        int newLength = (int) Math.min(capacity, prices.length * 2L);
+        prices = Arrays.copyOf(prices, newLength);
+        ratings = Arrays.copyOf(ratings, newLength);
+    }
+}
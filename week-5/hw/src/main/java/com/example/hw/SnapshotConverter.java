@@ -0,0 +1,36 @@
+package com.example.hw;
+
+import java.io.IOException;
+
+/**
+ * Command-line tool that converts a product CSV file into a binary
+ * ProductSnapshot, which the report loaders read directly.
+ *
+ * <pre>
+ * java -cp target/classes com.example.hw.SnapshotConverter products.csv products.bin
+ * </pre>
+ */
+public class SnapshotConverter {
+
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("Usage: java com.example.hw.SnapshotConverter <input.csv> <output"
+                    + ProductSnapshot.EXTENSION + ">");
+            System.exit(2);
+        }
+        if (!ProductSnapshot.isSnapshot(args[1])) {
+            System.err.println("Output file must end in " + ProductSnapshot.EXTENSION + ": " + args[1]);
+            System.exit(2);
+        }
+
+        try {
+            long start = System.nanoTime();
+            long rows = ProductSnapshot.write(args[0], args[1]);
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            System.out.printf("Wrote %d products to %s in %d ms%n", rows, args[1], millis);
+        } catch (IOException e) {
+            System.err.println("Error converting file: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
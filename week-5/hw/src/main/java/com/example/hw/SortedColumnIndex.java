@@ -0,0 +1,118 @@
+package com.example.hw;
+
+/**
+ * A sorted index over one numeric column of a ProductTable.
+ * It holds the column values in ascending order together with the row each
+ * value came from, so the rows whose value lies in a closed range can be
+ * found with two binary searches. NaN values sort last and never match a
+ * range, just as they never pass a {@code <=}/{@code >=} filter.
+ */
+public final class SortedColumnIndex {
+
+    private final double[] values;
+    private final int[] rows;
+    private final int comparableCount;
+
+    /**
+     * Builds an index over a column.
+     *
+     * @param column The column values, indexed by row. The array is not modified.
+     */
+    public SortedColumnIndex(double[] column) {
+        int n = column.length;
+        double[] sortedValues = column.clone();
+        int[] sortedRows = new int[n];
+        for (int i = 0; i < n; i++) {
+            sortedRows[i] = i;
+        }
+        mergeSort(sortedValues, sortedRows, new double[n], new int[n], 0, n);
+
+        int comparable = n;
+        while (comparable > 0 && Double.isNaN(sortedValues[comparable - 1])) {
+            comparable--;
+        }
+        this.values = sortedValues;
+        this.rows = sortedRows;
+        this.comparableCount = comparable;
+    }
+
+    /**
+     * Returns the first position whose value is at least the given minimum.
+     *
+     * @param minimum The inclusive lower bound.
+     * @return A position in [0, comparable count].
+     */
+    public int lowerBound(double minimum) {
+        int lo = 0;
+        int hi = comparableCount;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (values[mid] >= minimum) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Returns the position just past the last value that is at most the
+     * given maximum.
+     *
+     * @param maximum The inclusive upper bound.
+     * @return A position in [0, comparable count].
+     */
+    public int upperBound(double maximum) {
+        int lo = 0;
+        int hi = comparableCount;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (values[mid] <= maximum) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Returns the row stored at a sorted position.
+     *
+     * @param position A position between 0 and the index size.
+     * @return The table row holding the value at that position.
+     */
+    public int rowAt(int position) { return rows[position]; }
+
+    /**
+     * Stable merge sort of the values, carrying the row numbers along.
+     * Uses Double.compare so that NaN sorts after every number.
+     */
+    private static void mergeSort(double[] values, int[] rows, double[] valueScratch, int[] rowScratch,
+                                  int from, int to) {
+        if (to - from < 2) {
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSort(values, rows, valueScratch, rowScratch, from, mid);
+        mergeSort(values, rows, valueScratch, rowScratch, mid, to);
+        if (Double.compare(values[mid - 1], values[mid]) <= 0) {
+            return; // already in order
+        }
+
+        System.arraycopy(values, from, valueScratch, from, to - from);
+        System.arraycopy(rows, from, rowScratch, from, to - from);
+        int left = from;
+        int right = mid;
+        for (int out = from; out < to; out++) {
+            if (right >= to || (left < mid && Double.compare(valueScratch[left], valueScratch[right]) <= 0)) {
+                values[out] = valueScratch[left];
+                rows[out] = rowScratch[left++];
+            } else {
+                values[out] = valueScratch[right];
+                rows[out] = rowScratch[right++];
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.hw;
+
+import java.io.PrintStream;
+
+/**
+ * A report that can be fed rows by a scan it does not own.
+ * Streaming reports can share a single pass over a file with other
+ * reports, see {@link ReportFactory#generateBatch(PrintStream, java.util.List)}.
+ */
+public interface StreamingReport extends Report {
+
+    /**
+     * Starts a report and returns the sink that receives its matching rows.
+     * Any header is written before this method returns.
+     *
+     * @param ps          The PrintStream to which the report will be written.
+     * @param reportSpecs The specifications (filters, filename) for the report.
+     * @return The sink for the report's rows.
+     */
+    ReportSink open(PrintStream ps, ReportSpecs reportSpecs);
+}
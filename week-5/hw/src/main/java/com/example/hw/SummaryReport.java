@@ -1,53 +1,109 @@
-import java.io.BufferedReader;
-import java.io.FileReader;
+package com.example.hw;
+
 import java.io.IOException;
 import java.io.PrintStream;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.DoubleSummaryStatistics;
 
 /**
  * Generates a summary report of product data.
- * This class implements the Report interface.
+ * This class implements the StreamingReport interface, so it can also be
+ * fed rows by a shared batch scan.
  */
-public class SummaryReport implements Report {
+public class SummaryReport implements StreamingReport {
 
     /**
-     * Generates and prints a summary report.
-     * It filters products based on the report specifications and then uses
-     * a Java Stream to calculate the average price and rating of the
-     * included products.
+     * Generates and prints the report. A failure to read the file is
+     * printed to standard error after the partial report.
      *
      * @param ps          The PrintStream to write the report to.
      * @param reportSpecs The specifications for the report.
      */
     @Override
     public void generate(PrintStream ps, ReportSpecs reportSpecs) {
+        try {
+            generateChecked(ps, reportSpecs);
+        } catch (IOException e) {
+            System.err.println("Error reading file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Generates and prints a summary report.
+     * The matching rows of the shared ProductCatalog are folded into running
+     * price and rating statistics straight from its primitive columns.
+     * CSV files too large to cache are instead memory-mapped and aggregated
+     * in parallel chunks, and large snapshots are read sequentially.
+     *
+     * @param ps          The PrintStream to write the report to.
+     * @param reportSpecs The specifications for the report.
+     * @throws IOException if the file cannot be read; the partial report
+     *                     has been printed by then.
+     */
+    @Override
+    public void generateChecked(PrintStream ps, ReportSpecs reportSpecs) throws IOException {
         printHeader(ps, reportSpecs);
-        List<Product> products = readProductsFromFile(reportSpecs.getFilename());
 
-        // Use a Java Stream to filter products first.
-        List<Product> filteredProducts = products.stream()
-                .filter(p -> p.getPrice() <= reportSpecs.getMaximumPrice())
-                .filter(p -> p.getPrice() >= reportSpecs.getMinimumPrice())
-                .filter(p -> p.getRating() <= reportSpecs.getMaximumRating())
-                .filter(p -> p.getRating() >= reportSpecs.getMinimumRating())
-                .filter(p -> p.getName().matches(reportSpecs.getNameRegex()))
-                .collect(Collectors.toList());
+        ProductFilter filter = reportSpecs.getFilter();
+        Totals totals = new Totals();
+        IOException failure = null;
+        try {
+            totals = ProductCatalog.aggregate(reportSpecs.getFilename(), filter, Totals::new,
+                    Totals::accept, Totals::combine, (table, rows) -> {
+                        // Aggregate straight from the primitive columns of the cached table
+                        Totals fromTable = new Totals();
+                        for (int row : rows) {
+                            fromTable.priceStats.accept(table.getPrice(row));
+                            fromTable.ratingStats.accept(table.getRating(row));
+                        }
+                        return fromTable;
+                    });
+        } catch (IOException e) {
+            failure = e;
+        }
 
-        // Use Java Streams on the filtered list to calculate averages.
-        double averagePrice = filteredProducts.stream()
-                .mapToDouble(Product::getPrice)
-                .average()
-                .orElse(0.0);
+        printAverages(ps, totals.priceStats, totals.ratingStats);
+        if (failure != null) {
+            throw failure;
+        }
+    }
 
-        double averageRating = filteredProducts.stream()
-                .mapToDouble(Product::getRating)
-                .average()
-                .orElse(0.0);
+    /**
+     * Prints the report header and returns a sink that folds each matching
+     * product into running totals and prints the averages when finished.
+     *
+     * @param ps          The PrintStream to write the report to.
+     * @param reportSpecs The specifications for the report.
+     * @return The sink for the report's rows.
+     */
+    @Override
+    public ReportSink open(PrintStream ps, ReportSpecs reportSpecs) {
+        printHeader(ps, reportSpecs);
+        Totals totals = new Totals();
+        return new ReportSink() {
+            @Override
+            public void accept(Product p) {
+                totals.accept(p);
+            }
+
+            @Override
+            public void finish() {
+                printAverages(ps, totals.priceStats, totals.ratingStats);
+            }
+        };
+    }
 
-        ps.printf("Average Price  = %.2f%n", averagePrice);
-        ps.printf("Average Rating = %.2f%n", averageRating);
+    /**
+     * Prints the averages computed from the running statistics.
+     * An empty result prints 0.00 for both averages.
+     *
+     * @param ps          The PrintStream to write to.
+     * @param priceStats  The statistics of the matching prices.
+     * @param ratingStats The statistics of the matching ratings.
+     */
+    static void printAverages(PrintStream ps, DoubleSummaryStatistics priceStats,
+                              DoubleSummaryStatistics ratingStats) {
+        ps.printf("Average Price  = %.2f%n", priceStats.getAverage());
+        ps.printf("Average Rating = %.2f%n", ratingStats.getAverage());
         ps.println("------------------------------------------\n\n");
     }
 
@@ -56,8 +112,18 @@ public class SummaryReport implements Report {
      * @param ps The PrintStream to write to.
      * @param spec The report specifications.
      */
-    private void printHeader(PrintStream ps, ReportSpecs spec) {
-        ps.println("Summary Report");
+    static void printHeader(PrintStream ps, ReportSpecs spec) {
+        printHeader(ps, "Summary Report", spec);
+    }
+
+    /**
+     * Prints the header information for a report with the given title.
+     * @param ps The PrintStream to write to.
+     * @param title The report title.
+     * @param spec The report specifications.
+     */
+    static void printHeader(PrintStream ps, String title, ReportSpecs spec) {
+        ps.println(title);
         ps.println("------------------------------------------");
         ps.printf("Filename    : %s%n", spec.getFilename());
         ps.printf("Price Max   : %.2f%n", spec.getMaximumPrice());
@@ -69,34 +135,26 @@ public class SummaryReport implements Report {
     }
 
     /**
-     * Reads product data from a CSV file.
-     * Note: In a larger application, this might be moved to a shared utility class.
-     *
-     * @param filename The path to the CSV file.
-     * @return A list of Product objects.
+     * Running price and rating statistics for the rows that pass a filter.
+     * DoubleSummaryStatistics uses the same compensated summation as
+     * DoubleStream.average(), so sequential results are unchanged, and
+     * partial results from parallel chunks can be combined.
      */
-    private List<Product> readProductsFromFile(String filename) {
-        List<Product> products = new ArrayList<>();
-        try (BufferedReader br = new BufferedReader(new FileReader(filename))) {
-            br.readLine(); // Skip header
-            String line;
-            while ((line = br.readLine()) != null) {
-                String[] values = line.split(",");
-                // *** THIS IS THE CORRECTED LINE ***
-                Product product = new Product(
-                        values[0],                      // id (String)
-                        values[1],                      // name (String)
-                        Double.parseDouble(values[2]),  // price (double)
-                        values[3],                      // stockStatus (String)
-                        Double.parseDouble(values[4]),  // rating (double)
-                        values[5],                      // description (String)
-                        values[6]                       // customerReview (String)
-                );
-                products.add(product);
-            }
-        } catch (IOException e) {
-            System.err.println("Error reading file: " + e.getMessage());
+    static final class Totals {
+        final DoubleSummaryStatistics priceStats = new DoubleSummaryStatistics();
+        final DoubleSummaryStatistics ratingStats = new DoubleSummaryStatistics();
+
+        /** Folds one matching product into the totals. */
+        void accept(Product p) {
+            priceStats.accept(p.getPrice());
+            ratingStats.accept(p.getRating());
+        }
+
+        /** Merges the totals of a later chunk into this one. */
+        Totals combine(Totals other) {
+            priceStats.combine(other.priceStats);
+            ratingStats.combine(other.ratingStats);
+            return this;
         }
-        return products;
     }
 }
\ No newline at end of file
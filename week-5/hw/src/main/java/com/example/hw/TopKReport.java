@@ -0,0 +1,226 @@
+package com.example.hw;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Generates a report of the first N matching products ranked by price or
+ * rating, as set by the sort key, direction and limit of the ReportSpecs.
+ * Rows are streamed through a heap that never holds more than N entries,
+ * so finding the top 20 of millions of rows costs O(rows log 20) time and
+ * constant memory instead of a full sort. Rows with equal values keep
+ * their file order.
+ */
+public class TopKReport implements StreamingReport {
+
+    /**
+     * Generates and prints the report. A failure to read the file is
+     * printed to standard error after the partial report.
+     *
+     * @param ps          The PrintStream to write the report to.
+     * @param reportSpecs The specifications for the report.
+     */
+    @Override
+    public void generate(PrintStream ps, ReportSpecs reportSpecs) {
+        try {
+            generateChecked(ps, reportSpecs);
+        } catch (IOException e) {
+            System.err.println("Error reading file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Generates and prints the ranked report.
+     * Cached files are ranked straight from the primitive columns and only
+     * the N winning rows become Product objects. Files too large to cache
+     * are ranked in parallel chunks whose heaps are merged.
+     *
+     * @param ps          The PrintStream to write the report to.
+     * @param reportSpecs The specifications for the report.
+     * @throws IOException if the file cannot be read; the partial report
+     *                     has been printed by then.
+     */
+    @Override
+    public void generateChecked(PrintStream ps, ReportSpecs reportSpecs) throws IOException {
+        ReportWriter out = new ReportWriter(ps);
+        printHeader(out, reportSpecs);
+
+        ProductFilter filter = reportSpecs.getFilter();
+        TopK top = new TopK(reportSpecs);
+        IOException failure = null;
+        try {
+            top = ProductCatalog.aggregate(reportSpecs.getFilename(), filter, () -> new TopK(reportSpecs),
+                    TopK::accept, TopK::combine, (table, rows) -> {
+                        TopK fromTable = new TopK(reportSpecs, table);
+                        for (int row : rows) {
+                            fromTable.offer(fromTable.byPrice ? table.getPrice(row) : table.getRating(row),
+                                    null, row);
+                        }
+                        return fromTable;
+                    });
+        } catch (IOException e) {
+            failure = e;
+        }
+
+        for (Entry entry : top.ranked()) {
+            DetailReport.printRow(out, top.productOf(entry));
+        }
+        out.text("\n").newLine();
+        out.flush();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Prints the headers and returns a sink that ranks each matching
+     * product and prints the winners when finished.
+     *
+     * @param ps          The PrintStream to write the report to.
+     * @param reportSpecs The specifications for the report.
+     * @return The sink for the report's rows.
+     */
+    @Override
+    public ReportSink open(PrintStream ps, ReportSpecs reportSpecs) {
+        ReportWriter out = new ReportWriter(ps);
+        printHeader(out, reportSpecs);
+        out.flush();
+        TopK top = new TopK(reportSpecs);
+        return new ReportSink() {
+            @Override
+            public void accept(Product p) {
+                top.accept(p);
+            }
+
+            @Override
+            public void finish() {
+                for (Entry entry : top.ranked()) {
+                    DetailReport.printRow(out, entry.product);
+                }
+                out.text("\n").newLine();
+                out.flush();
+            }
+        };
+    }
+
+    /**
+     * Prints the report header, the ranking settings and the table header.
+     */
+    private void printHeader(ReportWriter out, ReportSpecs spec) {
+        DetailReport.printSpecs(out, "Top-K Report", spec);
+        out.text("Sort By     : ").text(spec.getSortKey().name())
+                .text(spec.isDescending() ? " (highest first)" : " (lowest first)").newLine();
+        out.text("Limit       : ").text(Integer.toString(spec.getLimit())).newLine();
+        out.text("------------------------------------------\n").newLine();
+        DetailReport.printTableHeader(out);
+    }
+
+    /**
+     * One ranked row: its sort value, its position among the matching rows,
+     * and either the product itself or its row in the cached table.
+     */
+    static final class Entry {
+        final double key;
+        final long sequence;
+        final Product product;
+        final int row;
+
+        Entry(double key, long sequence, Product product, int row) {
+            this.key = key;
+            this.sequence = sequence;
+            this.product = product;
+            this.row = row;
+        }
+    }
+
+    /**
+     * A bounded heap of the best N rows seen so far. The heap's head is the
+     * worst row kept, so a new row only has to beat the head to get in.
+     * Heaps built over consecutive chunks of a file can be combined.
+     */
+    static final class TopK {
+        private final int limit;
+        private final boolean byPrice;
+        private final boolean descending;
+        private final Comparator<Entry> bestFirst;
+        private final PriorityQueue<Entry> heap;
+        private final ProductTable table;
+        private long seen;
+
+        TopK(ReportSpecs spec) {
+            this(spec, null);
+        }
+
+        /**
+         * @param spec  The report specifications.
+         * @param table The cached table the offered rows belong to, or null
+         *              if every entry carries its product.
+         */
+        TopK(ReportSpecs spec, ProductTable table) {
+            this.table = table;
+            this.limit = spec.getLimit();
+            this.byPrice = spec.getSortKey() == ReportSpecs.SortKey.PRICE;
+            this.descending = spec.isDescending();
+            Comparator<Entry> byKey = (a, b) -> compareKeys(a.key, b.key);
+            this.bestFirst = byKey.reversed().thenComparingLong(e -> e.sequence);
+            this.heap = new PriorityQueue<>(Math.min(limit, 1024) + 1, bestFirst.reversed());
+        }
+
+        /** Ranks one matching product. */
+        void accept(Product p) {
+            offer(byPrice ? p.getPrice() : p.getRating(), p, -1);
+        }
+
+        /**
+         * Ranks the next matching row. Rows arrive in file order, so a row
+         * that only ties the worst kept row loses to it, and no Entry is
+         * created for a row that does not get in.
+         */
+        void offer(double key, Product product, int row) {
+            long sequence = seen++;
+            if (heap.size() == limit) {
+                if (compareKeys(key, heap.peek().key) <= 0) {
+                    return;
+                }
+                heap.poll();
+            }
+            heap.add(new Entry(key, sequence, product, row));
+        }
+
+        /** Merges the heap of the following chunk into this one. */
+        TopK combine(TopK other) {
+            for (Entry entry : other.heap) {
+                Entry shifted = new Entry(entry.key, seen + entry.sequence, entry.product, entry.row);
+                if (heap.size() < limit) {
+                    heap.add(shifted);
+                } else if (bestFirst.compare(shifted, heap.peek()) < 0) {
+                    heap.poll();
+                    heap.add(shifted);
+                }
+            }
+            seen += other.seen;
+            return this;
+        }
+
+        /** @return The product of a kept row, materialised from the table if needed. */
+        Product productOf(Entry entry) {
+            return entry.product != null ? entry.product : table.getProduct(entry.row);
+        }
+
+        /** @return The kept rows, best first. */
+        List<Entry> ranked() {
+            List<Entry> entries = new ArrayList<>(heap);
+            entries.sort(bestFirst);
+            return entries;
+        }
+
+        /** Positive when a ranks before b. */
+        private int compareKeys(double a, double b) {
+            return descending ? Double.compare(a, b) : Double.compare(b, a);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.hw;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Checks that AsyncReportService completes each future with the same text
+ * the report writes directly, and fails it when the file cannot be read.
+ */
+public class AsyncReportServiceTest {
+
+    @TempDir
+    Path dir;
+
+    /**
+     * A finished report is the text the report prints on its own.
+     */
+    @Test
+    public void completesWithTheReportText() throws Exception {
+        Path file = dir.resolve("products.csv");
+        Files.writeString(file, "ID,Name,Price,Stock,Rating,Features,Review\n"
+                + "P001,Starlite Backpack,49.99,In Stock,4.6,Durable,Great\n"
+                + "P002,Aurora Gaming Mouse,79.5,Out of Stock,1.8,RGB,Meh\n");
+        ReportSpecs specs = new ReportSpecs.Builder(file.toString()).build();
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        new SummaryReport().generate(new PrintStream(expected, true, Charset.defaultCharset()), specs);
+
+        try (AsyncReportService service = new AsyncReportService(2)) {
+            CompletableFuture<String> future = service.submit(new ReportRequest("SUMMARY", specs));
+            assertEquals(expected.toString(Charset.defaultCharset()), future.get(10, TimeUnit.SECONDS));
+        }
+    }
+
+    /**
+     * A missing file fails the future with the IOException instead of
+     * completing it with a report that has no rows.
+     */
+    @Test
+    public void missingFileFailsTheFuture() {
+        String missing = dir.resolve("no-such-file.csv").toString();
+        ReportSpecs specs = new ReportSpecs.Builder(missing).build();
+
+        try (AsyncReportService service = new AsyncReportService(2)) {
+            CompletableFuture<String> future = service.submit(new ReportRequest("SUMMARY", specs));
+            ExecutionException e = assertThrows(ExecutionException.class,
+                    () -> future.get(10, TimeUnit.SECONDS));
+            assertTrue(e.getCause() instanceof IOException, "cause was " + e.getCause());
+        }
+    }
+
+    /**
+     * A request without a type or specifications is rejected when it is
+     * submitted rather than failing later on a worker.
+     */
+    @Test
+    public void nullRequestPartsAreRejected() {
+        ReportSpecs specs = new ReportSpecs.Builder(dir.resolve("products.csv").toString()).build();
+
+        try (AsyncReportService service = new AsyncReportService(1)) {
+            assertThrows(NullPointerException.class, () -> service.submit(null));
+            assertThrows(NullPointerException.class, () -> service.submit(new ReportRequest(null, specs)));
+            assertThrows(NullPointerException.class, () -> service.submit(new ReportRequest("SUMMARY", null)));
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.hw;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Checks CsvTokenizer's field splitting against RFC 4180 quoting and its
+ * number parsing against Double.parseDouble.
+ */
+public class CsvTokenizerTest {
+
+    @Test
+    public void splitsUnquotedFields() {
+        CsvTokenizer tokenizer = tokenize("P1,Widget,9.99,In Stock");
+        assertEquals(4, tokenizer.getFieldCount());
+        assertEquals("P1", tokenizer.getString(0));
+        assertEquals("Widget", tokenizer.getString(1));
+        assertEquals("In Stock", tokenizer.getString(3));
+    }
+
+    @Test
+    public void keepsEmptyFields() {
+        CsvTokenizer tokenizer = tokenize(",a,,");
+        assertEquals(4, tokenizer.getFieldCount());
+        assertEquals("", tokenizer.getString(0));
+        assertEquals("a", tokenizer.getString(1));
+        assertEquals("", tokenizer.getString(2));
+        assertEquals("", tokenizer.getString(3));
+    }
+
+    @Test
+    public void quotedFieldsMayContainCommas() {
+        CsvTokenizer tokenizer = tokenize("P2,\"Cable, USB-C, 2m\",4.50");
+        assertEquals(3, tokenizer.getFieldCount());
+        assertEquals("Cable, USB-C, 2m", tokenizer.getString(1));
+        assertEquals(4.50, tokenizer.getDouble(2));
+    }
+
+    @Test
+    public void doubledQuotesBecomeOneQuote() {
+        CsvTokenizer tokenizer = tokenize("\"He said \"\"great\"\"\",\"\"\"\",\"\"");
+        assertEquals(3, tokenizer.getFieldCount());
+        assertEquals("He said \"great\"", tokenizer.getString(0));
+        assertEquals("\"", tokenizer.getString(1));
+        assertEquals("", tokenizer.getString(2));
+    }
+
+    @Test
+    public void quotedNumbersParse() {
+        CsvTokenizer tokenizer = tokenize("\"12.5\",\"1,5\"");
+        assertEquals(12.5, tokenizer.getDouble(0));
+        assertThrows(NumberFormatException.class, () -> tokenizer.getDouble(1));
+    }
+
+    @Test
+    public void decodesMultiByteCharacters() {
+        CsvTokenizer tokenizer = tokenize("P3,\"Café – crème\",2");
+        assertEquals("Café – crème", tokenizer.getString(1));
+    }
+
+    @Test
+    public void tokenizesWithinALargerBuffer() {
+        byte[] bytes = "xxP4,Lamp,19.90\nyy".getBytes(StandardCharsets.UTF_8);
+        CsvTokenizer tokenizer = new CsvTokenizer(StandardCharsets.UTF_8);
+        assertEquals(3, tokenizer.tokenize(bytes, 2, 15));
+        assertEquals("P4", tokenizer.getString(0));
+        assertEquals(19.90, tokenizer.getDouble(2));
+    }
+
+    /**
+     * Plain decimals, which take the fast path.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"0", "-0", "+3", "49.99", "-3", "0.1", "0.3", "4.35", "1234567.891",
+            "9007199254740992", "0.000000000000001", "123456789012345678", ".5", "5.", "-0.0"})
+    public void plainDecimalsMatchParseDouble(String text) {
+        assertParsesLikeParseDouble(text);
+    }
+
+    /**
+     * Exponents, which are parsed by Double.parseDouble.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"1e3", "1E3", "-2.5e-3", "6.02214076e23", "1e-320", "1e400", "4.9e-324"})
+    public void exponentsMatchParseDouble(String text) {
+        assertParsesLikeParseDouble(text);
+    }
+
+    /**
+     * Numbers with more than 15 significant digits, whose mantissa is
+     * past 2^53 or which have more digits than the fast path takes.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"9007199254740993", "12345678901234567.5", "0.1234567890123456789",
+            "1234567890123456789", "3.14159265358979323846", "99999999999999999999",
+            "0.30000000000000004", "-18014398509481985"})
+    public void longNumbersMatchParseDouble(String text) {
+        assertParsesLikeParseDouble(text);
+    }
+
+    /**
+     * Leading and trailing whitespace, which Double.parseDouble trims.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {" 49.99", "49.99 ", "\t-3\t", "  1e2  "})
+    public void surroundingWhitespaceMatchesParseDouble(String text) {
+        assertParsesLikeParseDouble(text);
+    }
+
+    /**
+     * Text that is not a number is rejected like Double.parseDouble does.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"", "-", ".", "abc", "1.2.3", "4,5", "12a", "--1"})
+    public void nonNumbersAreRejected(String text) {
+        CsvTokenizer tokenizer = tokenize("\"" + text + "\"");
+        assertThrows(NumberFormatException.class, () -> Double.parseDouble(text));
+        assertThrows(NumberFormatException.class, () -> tokenizer.getDouble(0));
+    }
+
+    /**
+     * Random prices with up to eight decimals all take the same value as
+     * Double.parseDouble.
+     */
+    @Test
+    public void randomDecimalsMatchParseDouble() {
+        Random random = new Random(7);
+        for (int i = 0; i < 100_000; i++) {
+            long units = random.nextLong() % 1_000_000_000_000L;
+            int decimals = random.nextInt(9);
+            StringBuilder text = new StringBuilder(Long.toString(Math.abs(units)));
+            while (text.length() <= decimals) {
+                text.insert(0, '0');
+            }
+            if (decimals > 0) {
+                text.insert(text.length() - decimals, '.');
+            }
+            if (units < 0) {
+                text.insert(0, '-');
+            }
+            assertParsesLikeParseDouble(text.toString());
+        }
+    }
+
+    private static CsvTokenizer tokenize(String line) {
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        CsvTokenizer tokenizer = new CsvTokenizer(StandardCharsets.UTF_8);
+        tokenizer.tokenize(bytes, 0, bytes.length);
+        return tokenizer;
+    }
+
+    private static void assertParsesLikeParseDouble(String text) {
+        CsvTokenizer tokenizer = tokenize("id," + text + ",x");
+        assertEquals(Double.parseDouble(text), tokenizer.getDouble(1), "field \"" + text + "\"");
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.hw;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Properties;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Checks that follow mode prints the same report as SummaryReport over the
+ * file as it stands after every append.
+ */
+public class FollowingSummaryReportTest {
+
+    @TempDir
+    Path dir;
+
+    /**
+     * Rows appended between refreshes are counted once, whichever line
+     * ending the file uses.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"\n", "\r\n", "\r"})
+    public void appendedRowsMatchSummaryReport(String lineEnd) throws IOException {
+        Path file = dir.resolve("products.csv");
+        ReportSpecs specs = new ReportSpecs.Builder(file.toString()).build();
+        FollowingSummaryReport follow = new FollowingSummaryReport();
+
+        append(file, "ID,Name,Price,Stock,Rating,Features,Review" + lineEnd + rows(0, 5, lineEnd));
+        assertEquals(summary(specs), render(follow, specs));
+
+        append(file, rows(5, 12, lineEnd));
+        assertEquals(summary(specs), render(follow, specs));
+    }
+
+    /**
+     * A "\r\n" split across two appends is one line end, as ProductReader
+     * reads it, not an extra empty line.
+     */
+    @Test
+    public void lineEndSplitAcrossAppends() throws IOException {
+        Path file = dir.resolve("products.csv");
+        ReportSpecs specs = new ReportSpecs.Builder(file.toString()).build();
+        FollowingSummaryReport follow = new FollowingSummaryReport();
+
+        append(file, "ID,Name,Price,Stock,Rating,Features,Review\r\n" + rows(0, 3, "\r\n") + "P3,Lamp,30.0,In Stock,3.0,a,b\r");
+        assertEquals(summary(specs), render(follow, specs));
+        long offset = follow.getOffset(specs);
+
+        append(file, "\n");
+        assertEquals(summary(specs), render(follow, specs));
+        assertEquals(offset + 1, follow.getOffset(specs));
+
+        append(file, rows(4, 6, "\r\n"));
+        assertEquals(summary(specs), render(follow, specs));
+    }
+
+    /**
+     * A partly written row is left for the next refresh.
+     */
+    @Test
+    public void partialLastRowWaitsForItsLineEnd() throws IOException {
+        Path file = dir.resolve("products.csv");
+        ReportSpecs specs = new ReportSpecs.Builder(file.toString()).build();
+        FollowingSummaryReport follow = new FollowingSummaryReport();
+
+        append(file, "ID,Name,Price,Stock,Rating,Features,Review\n" + rows(0, 2, "\n"));
+        String beforePartial = summary(specs);
+        append(file, "P2,Half");
+        assertEquals(beforePartial, render(follow, specs));
+
+        append(file, " a row,12.5,In Stock,4.0,a,b\n");
+        assertEquals(summary(specs), render(follow, specs));
+    }
+
+    /**
+     * A report restarted from its checkpoint after every append ends with
+     * exactly the state of one that ran throughout, including a "\r\n"
+     * split across the restart.
+     */
+    @Test
+    public void resumedRunMatchesUninterruptedRun() throws IOException {
+        Path file = dir.resolve("products.csv");
+        Path continuous = dir.resolve("continuous.properties");
+        Path resumed = dir.resolve("resumed.properties");
+        ReportSpecs specs = new ReportSpecs.Builder(file.toString()).build();
+        FollowingSummaryReport throughout = new FollowingSummaryReport(continuous.toString());
+
+        String[] appends = {
+            "ID,Name,Price,Stock,Rating,Features,Review\r\n" + rows(0, 40, "\r\n"),
+            rows(40, 90, "\r\n") + "P90,Lamp,0.1,In Stock,4.9,a,b\r",
+            "\n" + rows(91, 150, "\r\n"),
+            rows(150, 151, "\r\n") + "P151,Half",
+            " a row,1e-3,In Stock,0.1,a,b\r\n"
+        };
+        for (String text : appends) {
+            append(file, text);
+            String expected = render(throughout, specs);
+            String actual = render(new FollowingSummaryReport(resumed.toString()), specs);
+
+            assertEquals(expected, actual);
+            assertEquals(load(continuous), load(resumed));
+        }
+        assertEquals(summary(specs), render(new FollowingSummaryReport(resumed.toString()), specs));
+    }
+
+    static String rows(int from, int to, String lineEnd) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = from; i < to; i++) {
+            sb.append('P').append(i).append(",Product ").append(i).append(',').append(10 + i * 7.31)
+                    .append(",In Stock,").append(1 + i % 40 / 10.0).append(",Sturdy,Fine").append(lineEnd);
+        }
+        return sb.toString();
+    }
+
+    static void append(Path file, String text) throws IOException {
+        Files.writeString(file, text, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    static Properties load(Path checkpoint) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(checkpoint)) {
+            properties.load(in);
+        }
+        return properties;
+    }
+
+    static String render(Report report, ReportSpecs specs) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        report.generate(new PrintStream(out, true, Charset.defaultCharset()), specs);
+        return out.toString(Charset.defaultCharset());
+    }
+
+    static String summary(ReportSpecs specs) {
+        ProductCatalog.clearCache();
+        return render(new SummaryReport(), specs);
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.hw;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.DoubleSummaryStatistics;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Checks the per-status totals of GroupedReport on the cached, streamed
+ * and batch paths against totals computed directly.
+ */
+public class GroupedReportTest {
+
+    private static final String[] STATUSES = {"In Stock", "Out of Stock", "Backorder", "Discontinued", "Preorder"};
+
+    @TempDir
+    Path dir;
+
+    @AfterEach
+    public void restoreCache() {
+        ProductCatalog.setMaxCachedBytes(256L * 1024 * 1024);
+        ProductCatalog.clearCache();
+    }
+
+    /**
+     * Every path prints the count, price range and averages of each status,
+     * in alphabetical order, matching DoubleSummaryStatistics over the rows.
+     */
+    @Test
+    public void groupsMatchDirectTotals() throws IOException {
+        Path file = dir.resolve("products.csv");
+        Map<String, DoubleSummaryStatistics[]> expected = new TreeMap<>();
+        StringBuilder csv = new StringBuilder("ID,Name,Price,Stock,Rating,Features,Review\n");
+        Random random = new Random(17);
+        for (int i = 0; i < 5000; i++) {
+            String status = STATUSES[random.nextInt(STATUSES.length)];
+            double price = random.nextInt(150_000) / 100.0;
+            double rating = random.nextInt(51) / 10.0;
+            csv.append('P').append(i).append(",Item ").append(i).append(',').append(price).append(',')
+                    .append(status).append(',').append(rating).append(",x,y\n");
+            if (price >= 100 && price <= 1000 && rating >= 2) {
+                DoubleSummaryStatistics[] stats = expected.computeIfAbsent(status,
+                        k -> new DoubleSummaryStatistics[] {new DoubleSummaryStatistics(),
+                                new DoubleSummaryStatistics()});
+                stats[0].accept(price);
+                stats[1].accept(rating);
+            }
+        }
+        Files.writeString(file, csv);
+        ReportSpecs specs = new ReportSpecs.Builder(file.toString())
+                .minimumPrice(100).minimumRating(2).build();
+
+        String cached = render(specs);
+        assertEquals(expectedRows(expected), groupRows(cached));
+
+        ProductCatalog.setMaxCachedBytes(1);
+        assertEquals(cached, render(specs));
+
+        ByteArrayOutputStream batch = new ByteArrayOutputStream();
+        ReportFactory.generateBatch(new PrintStream(batch, true, Charset.defaultCharset()),
+                List.of(new ReportRequest("GROUPED", specs)));
+        assertEquals(cached, batch.toString(Charset.defaultCharset()));
+    }
+
+    /**
+     * A filter that matches nothing prints the column headings only.
+     */
+    @Test
+    public void noMatchesPrintsNoGroups() throws IOException {
+        Path file = Files.writeString(dir.resolve("products.csv"),
+                "ID,Name,Price,Stock,Rating,Features,Review\nP1,Lamp,5.0,In Stock,4.0,x,y\n");
+        ReportSpecs specs = new ReportSpecs.Builder(file.toString()).minimumPrice(100).build();
+
+        assertEquals("", groupRows(render(specs)));
+    }
+
+    private static String render(ReportSpecs specs) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new GroupedReport().generate(new PrintStream(out, true, Charset.defaultCharset()), specs);
+        return out.toString(Charset.defaultCharset());
+    }
+
+    /** The group lines of a report, between the column rule and the closing rule. */
+    private static String groupRows(String report) {
+        String rule = "-".repeat(69) + System.lineSeparator();
+        int start = report.indexOf(rule) + rule.length();
+        return report.substring(start, report.indexOf("------------------------------------------\n\n", start));
+    }
+
+    private static String expectedRows(Map<String, DoubleSummaryStatistics[]> expected) {
+        StringBuilder rows = new StringBuilder();
+        for (Map.Entry<String, DoubleSummaryStatistics[]> entry : expected.entrySet()) {
+            DoubleSummaryStatistics prices = entry.getValue()[0];
+            rows.append(String.format("%-14s %10d %10.2f %10.2f %10.2f %10.2f%n", entry.getKey(),
+                    prices.getCount(), prices.getAverage(), prices.getMin(), prices.getMax(),
+                    entry.getValue()[1].getAverage()));
+        }
+        return rows.toString();
+    }
+}
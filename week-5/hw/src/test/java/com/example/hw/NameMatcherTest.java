@@ -0,0 +1,56 @@
+package com.example.hw;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Checks that every NameMatcher fast path gives the same answer as
+ * {@link String#matches(String)}.
+ */
+public class NameMatcherTest {
+
+    private static final String[] NAMES = {
+        "", "Star", "Starlite Backpack", "Aurora Gaming Mouse", "Mouse", "Cosmic Yoga Mat",
+        "star", "Star\nlite", "Gaming\rMouse", "Mouse Pad", "Pad\u0085", " Star",
+        "Cosmic Yoga Mat ", "a.b", "aXb", "Star.*"
+    };
+
+    /**
+     * Patterns of every kind, including ones that look trivial but are not.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {".*", "Star.*", ".*Mouse.*", "Cosmic Yoga Mat", "Mouse", "",
+            "S.*k", "[A-Z].*", ".*a.*b.*", "a.b", "Star\\..*", ".*.*", ".*Mouse", "(?i)star.*", ".*\\Q.\\E.*"})
+    public void matchesLikeStringMatches(String regex) {
+        NameMatcher matcher = NameMatcher.compile(regex);
+        for (String name : NAMES) {
+            assertEquals(name.matches(regex), matcher.matches(name),
+                    "regex " + regex + " (" + matcher.getKind() + ") on " + escape(name));
+        }
+    }
+
+    /**
+     * Trivial patterns take the fast paths; anything else uses the regex engine.
+     */
+    @Test
+    public void choosesTheCheapestStrategy() {
+        assertEquals(NameMatcher.Kind.ANY, NameMatcher.compile(".*").getKind());
+        assertEquals(NameMatcher.Kind.PREFIX, NameMatcher.compile("Star.*").getKind());
+        assertEquals(NameMatcher.Kind.CONTAINS, NameMatcher.compile(".*Mouse.*").getKind());
+        assertEquals(NameMatcher.Kind.LITERAL, NameMatcher.compile("Cosmic Yoga Mat").getKind());
+        assertEquals(NameMatcher.Kind.REGEX, NameMatcher.compile("S.*k").getKind());
+        assertEquals(NameMatcher.Kind.REGEX, NameMatcher.compile("(?i)star.*").getKind());
+        assertEquals(NameMatcher.Kind.REGEX, NameMatcher.compile("a.b").getKind());
+    }
+
+    private static String escape(String name) {
+        StringBuilder sb = new StringBuilder();
+        for (char c : name.toCharArray()) {
+            sb.append(c < ' ' || c > '~' ? String.format("\\u%04x", (int) c) : String.valueOf(c));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.hw;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Random;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Checks that ParallelGzipInputStream returns the original bytes for BGZF
+ * and plain gzip files, and that it measures BGZF files by the sizes in
+ * their member trailers.
+ */
+public class ParallelGzipInputStreamTest {
+
+    /** The largest block bgzip writes, so each member stays under 64 KB. */
+    private static final int BGZF_BLOCK_BYTES = 0xff00;
+
+    @TempDir
+    Path dir;
+
+    /**
+     * A small BGZF file of a few members, all in one batch.
+     */
+    @Test
+    public void smallBgzfRoundTrips() throws IOException {
+        byte[] raw = csv(2_000, 1);
+        Path file = writeBgzf(dir.resolve("small.csv.gz"), raw);
+
+        assertArrayEquals(raw, readAll(file));
+        assertEquals(raw.length, ParallelGzipInputStream.uncompressedSize(file.toString()));
+    }
+
+    /**
+     * A BGZF file of poorly compressible rows, so its members span several
+     * one-megabyte batches that are inflated in parallel.
+     */
+    @Test
+    public void multiBatchBgzfRoundTrips() throws IOException {
+        byte[] raw = noisyCsv(60_000, 2);
+        Path file = writeBgzf(dir.resolve("large.csv.gz"), raw);
+        assertTrue(Files.size(file) > 2L << 20, "fixture spans several batches");
+
+        assertArrayEquals(raw, readAll(file));
+        assertEquals(raw.length, ParallelGzipInputStream.uncompressedSize(file.toString()));
+    }
+
+    /**
+     * A plain gzip file has no member sizes, so it is read on the calling
+     * thread and its uncompressed size is unknown.
+     */
+    @Test
+    public void plainGzipFallsBackToSequentialRead() throws IOException {
+        byte[] raw = csv(2_000, 3);
+        Path file = dir.resolve("plain.csv.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+            out.write(raw);
+        }
+
+        assertArrayEquals(raw, readAll(file));
+        assertEquals(-1L, ParallelGzipInputStream.uncompressedSize(file.toString()));
+    }
+
+    /**
+     * Uncompressed files are passed through unchanged.
+     */
+    @Test
+    public void uncompressedFileIsReadAsIs() throws IOException {
+        byte[] raw = csv(100, 4);
+        Path file = Files.write(dir.resolve("products.csv"), raw);
+
+        assertArrayEquals(raw, readAll(file));
+    }
+
+    /**
+     * The remembered size is measured again once the file changes.
+     */
+    @Test
+    public void uncompressedSizeFollowsFileChanges() throws IOException {
+        Path file = dir.resolve("changing.csv.gz");
+        byte[] first = csv(1_000, 5);
+        writeBgzf(file, first);
+        assertEquals(first.length, ParallelGzipInputStream.uncompressedSize(file.toString()));
+
+        byte[] second = csv(3_000, 6);
+        writeBgzf(file, second);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 2_000));
+        assertEquals(second.length, ParallelGzipInputStream.uncompressedSize(file.toString()));
+    }
+
+    private static byte[] readAll(Path file) throws IOException {
+        try (InputStream in = ParallelGzipInputStream.open(file.toString())) {
+            return in.readAllBytes();
+        }
+    }
+
+    /**
+     * Builds product rows with a header line.
+     */
+    private static byte[] csv(int rows, long seed) {
+        Random random = new Random(seed);
+        StringBuilder sb = new StringBuilder("ID,Name,Price,Stock,Rating,Features,Review\n");
+        for (int i = 0; i < rows; i++) {
+            sb.append('P').append(i).append(",Product ").append(random.nextInt(1000)).append(',')
+                    .append(random.nextInt(100_000) / 100.0).append(',')
+                    .append(random.nextBoolean() ? "In Stock" : "Out of Stock").append(',')
+                    .append(random.nextInt(50) / 10.0).append(",Sturdy,Fine\n");
+        }
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Builds product rows whose review text is random letters, so they
+     * barely compress.
+     */
+    private static byte[] noisyCsv(int rows, long seed) {
+        Random random = new Random(seed);
+        StringBuilder sb = new StringBuilder("ID,Name,Price,Stock,Rating,Features,Review\n");
+        for (int i = 0; i < rows; i++) {
+            sb.append('P').append(i).append(",Product,").append(random.nextInt(100_000) / 100.0)
+                    .append(",In Stock,4.5,Sturdy,");
+            for (int c = 0; c < 60; c++) {
+                sb.append((char) ('a' + random.nextInt(26)));
+            }
+            sb.append('\n');
+        }
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes data as BGZF: deflated blocks of at most 0xff00 bytes, each a
+     * gzip member whose "BC" extra subfield holds the member size minus
+     * one, followed by the empty end-of-file member.
+     */
+    private static Path writeBgzf(Path file, byte[] raw) throws IOException {
+        try (OutputStream out = Files.newOutputStream(file)) {
+            for (int off = 0; off < raw.length; off += BGZF_BLOCK_BYTES) {
+                writeMember(out, raw, off, Math.min(BGZF_BLOCK_BYTES, raw.length - off));
+            }
+            writeMember(out, raw, 0, 0);
+        }
+        return file;
+    }
+
+    private static void writeMember(OutputStream out, byte[] raw, int off, int len) throws IOException {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        deflater.setInput(raw, off, len);
+        deflater.finish();
+        byte[] compressed = new byte[len + 1024];
+        int n = 0;
+        while (!deflater.finished()) {
+            n += deflater.deflate(compressed, n, compressed.length - n);
+        }
+        deflater.end();
+        CRC32 crc = new CRC32();
+        crc.update(raw, off, len);
+
+        int memberBytes = 18 + n + 8;
+        ByteBuffer member = ByteBuffer.allocate(memberBytes).order(ByteOrder.LITTLE_ENDIAN);
+        member.put((byte) 0x1f).put((byte) 0x8b).put((byte) 8).put((byte) 4) // magic, deflate, FEXTRA
+                .putInt(0).put((byte) 0).put((byte) 0xff)                     // MTIME, XFL, OS
+                .putShort((short) 6)                                          // XLEN
+                .put((byte) 'B').put((byte) 'C').putShort((short) 2)          // BGZF subfield
+                .putShort((short) (memberBytes - 1))
+                .put(compressed, 0, n)
+                .putInt((int) crc.getValue()).putInt(len);                    // CRC32, ISIZE
+        out.write(member.array());
+    }
+}
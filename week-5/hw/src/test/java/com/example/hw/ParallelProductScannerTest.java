@@ -0,0 +1,88 @@
+package com.example.hw;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Checks that the parallel scan reads the same rows as ProductReader for
+ * every line ending, with files large enough to be split into chunks.
+ */
+public class ParallelProductScannerTest {
+
+    /** Enough rows to fill several four-megabyte chunks. */
+    private static final int ROWS = 200_000;
+
+    @TempDir
+    Path dir;
+
+    /**
+     * Every row is read once, whichever line ending the file uses.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"\n", "\r\n", "\r"})
+    public void scanMatchesSequentialRead(String lineEnd) throws IOException {
+        Path file = write(lineEnd);
+
+        List<String> expected = new ArrayList<>();
+        ProductReader.read(file.toString(), p -> expected.add(p.getId()));
+        List<String> scanned = ParallelProductScanner.scan(file.toString(), null, ArrayList::new,
+                (ids, p) -> ids.add(p.getId()), (a, b) -> {
+                    a.addAll(b);
+                    return a;
+                });
+
+        assertEquals(ROWS, expected.size());
+        assertEquals(expected, scanned);
+    }
+
+    /**
+     * Sampled blocks start and end on whole rows, whichever line ending the
+     * file uses.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"\n", "\r\n", "\r"})
+    public void sampleReadsWholeRows(String lineEnd) throws IOException {
+        Path file = write(lineEnd);
+
+        ParallelProductScanner.Sample<List<Product>> sample = ParallelProductScanner.scanSample(
+                file.toString(), null, 1L << 20, 42L, start -> new ArrayList<>(),
+                List::add, (a, b) -> {
+                    a.addAll(b);
+                    return a;
+                });
+
+        List<Product> rows = sample.getResult();
+        assertTrue(sample.getFraction() < 1.0, "fraction " + sample.getFraction());
+        assertFalse(rows.isEmpty(), "sample is empty");
+        for (Product product : rows) {
+            String number = product.getId().substring(1);
+            assertEquals("Product " + number, product.getName());
+            assertEquals(Integer.parseInt(number) % 1000 / 10.0, product.getPrice());
+        }
+    }
+
+    private Path write(String lineEnd) throws IOException {
+        Path file = dir.resolve("products.csv");
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("ID,Name,Price,Stock,Rating,Features,Review" + lineEnd);
+            for (int i = 0; i < ROWS; i++) {
+                out.write("P" + i + ",Product " + i + "," + (i % 1000 / 10.0) + ",In Stock,4.5,Sturdy,Fine"
+                        + lineEnd);
+            }
+        }
+        return file;
+    }
+}
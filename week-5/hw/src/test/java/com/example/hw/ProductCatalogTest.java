@@ -0,0 +1,128 @@
+package com.example.hw;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Checks that ProductCatalog parses each version of a file once and
+ * notices when the file changes.
+ */
+public class ProductCatalogTest {
+
+    private static final String HEADER = "ID,Name,Price,Stock,Rating,Features,Review\n";
+
+    @TempDir
+    Path dir;
+
+    @BeforeEach
+    public void clearCache() {
+        ProductCatalog.clearCache();
+    }
+
+    /**
+     * A second load of an unchanged file is a cache hit, whatever path
+     * names the file.
+     */
+    @Test
+    public void unchangedFileIsParsedOnce() throws IOException {
+        Path file = write("products.csv", 3);
+
+        ProductCatalog first = ProductCatalog.load(file.toString());
+        ProductCatalog second = ProductCatalog.load(dir.resolve(".").resolve("products.csv").toString());
+
+        assertSame(first, second);
+        assertEquals(3, first.getTable().size());
+        assertEquals(1, ProductCatalog.getCacheMisses());
+        assertEquals(1, ProductCatalog.getCacheHits());
+    }
+
+    /**
+     * Callers that arrive together share one parse.
+     */
+    @Test
+    public void concurrentLoadsShareOneParse() throws Exception {
+        Path file = write("products.csv", 50_000);
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<ProductCatalog>> loads = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                loads.add(pool.submit(() -> {
+                    start.await();
+                    return ProductCatalog.load(file.toString());
+                }));
+            }
+            start.countDown();
+            ProductCatalog catalog = loads.get(0).get();
+            for (Future<ProductCatalog> load : loads) {
+                assertSame(catalog, load.get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(1, ProductCatalog.getCacheMisses());
+        assertEquals(threads - 1, ProductCatalog.getCacheHits());
+    }
+
+    /**
+     * A change of size or of last-modified time alone is parsed again.
+     */
+    @Test
+    public void changedFileIsParsedAgain() throws IOException {
+        Path file = write("products.csv", 3);
+        ProductCatalog original = ProductCatalog.load(file.toString());
+
+        write("products.csv", 4);
+        ProductCatalog grown = ProductCatalog.load(file.toString());
+        assertNotSame(original, grown);
+        assertEquals(4, grown.getTable().size());
+
+        FileTime modified = Files.getLastModifiedTime(file);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(modified.toMillis() + 5_000));
+        ProductCatalog touched = ProductCatalog.load(file.toString());
+        assertNotSame(grown, touched);
+        assertEquals(3, ProductCatalog.getCacheMisses());
+    }
+
+    /**
+     * A file that fails to parse is not cached, so fixing it is enough.
+     */
+    @Test
+    public void failedParseIsNotCached() throws IOException {
+        Path file = dir.resolve("products.csv");
+        Files.writeString(file, HEADER + "P1,Broken,not-a-price,In Stock,4.0,x,y\n");
+        assertThrows(RuntimeException.class, () -> ProductCatalog.load(file.toString()));
+        assertThrows(RuntimeException.class, () -> ProductCatalog.load(file.toString()));
+        assertEquals(2, ProductCatalog.getCacheMisses());
+
+        write("products.csv", 2);
+        assertEquals(2, ProductCatalog.load(file.toString()).getTable().size());
+    }
+
+    private Path write(String name, int rows) throws IOException {
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int i = 0; i < rows; i++) {
+            csv.append('P').append(i).append(",Item ").append(i).append(',').append(i % 900 + 0.5)
+                    .append(",In Stock,").append(i % 50 / 10.0).append(",x,y\n");
+        }
+        return Files.writeString(dir.resolve(name), csv);
+    }
+}
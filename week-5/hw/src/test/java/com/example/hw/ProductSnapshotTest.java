@@ -0,0 +1,96 @@
+package com.example.hw;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Checks that a snapshot reads back the products of its CSV file and that
+ * a damaged snapshot is rejected.
+ */
+public class ProductSnapshotTest {
+
+    private static final String CSV = "ID,Name,Price,Stock,Rating,Features,Review\n"
+            + "P1,Starlite Backpack,49.99,In Stock,4.5,Light,Great\n"
+            + "P2,\"Mouse, Wireless\",19.5,Out of Stock,3.25,\"Says \"\"click\"\"\",Fine\n"
+            + "P3,Café Lamp,0.1,In Stock,0.0,,\n";
+
+    @TempDir
+    Path dir;
+
+    /**
+     * Every column of every row survives the conversion unchanged.
+     */
+    @Test
+    public void roundTripMatchesTheCsv() throws IOException {
+        Path csv = csv();
+        Path snapshot = dir.resolve("products" + ProductSnapshot.EXTENSION);
+
+        assertEquals(3, ProductSnapshot.write(csv.toString(), snapshot.toString()));
+
+        List<Product> expected = new ArrayList<>();
+        ProductReader.read(csv.toString(), expected::add);
+        List<Product> actual = new ArrayList<>();
+        ProductSnapshot.read(snapshot.toString(), actual::add);
+
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Product e = expected.get(i);
+            Product a = actual.get(i);
+            assertEquals(e.getId(), a.getId());
+            assertEquals(e.getName(), a.getName());
+            assertEquals(e.getPrice(), a.getPrice());
+            assertEquals(e.getStockStatus(), a.getStockStatus());
+            assertEquals(e.getRating(), a.getRating());
+            assertEquals(e.getDescription(), a.getDescription());
+            assertEquals(e.getCustomerReview(), a.getCustomerReview());
+        }
+        assertEquals("Mouse, Wireless", actual.get(1).getName());
+    }
+
+    /**
+     * A flipped bit anywhere in the body fails the checksum before any row
+     * is handed out.
+     */
+    @Test
+    public void corruptBodyIsRejected() throws IOException {
+        Path snapshot = dir.resolve("products" + ProductSnapshot.EXTENSION);
+        ProductSnapshot.write(csv().toString(), snapshot.toString());
+        byte[] bytes = Files.readAllBytes(snapshot);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(snapshot, bytes);
+
+        List<Product> seen = new ArrayList<>();
+        IOException e = assertThrows(IOException.class,
+                () -> ProductSnapshot.read(snapshot.toString(), seen::add));
+        assertTrue(e.getMessage().contains("checksum"));
+        assertEquals(0, seen.size());
+    }
+
+    /**
+     * A file without the snapshot header is not read as one.
+     */
+    @Test
+    public void foreignFileIsRejected() throws IOException {
+        Path snapshot = dir.resolve("csv" + ProductSnapshot.EXTENSION);
+        Files.write(snapshot, CSV.getBytes(Charset.defaultCharset()));
+
+        IOException e = assertThrows(IOException.class,
+                () -> ProductSnapshot.read(snapshot.toString(), p -> { }));
+        assertTrue(e.getMessage().startsWith("Not a product snapshot"));
+    }
+
+    private Path csv() throws IOException {
+        return Files.write(dir.resolve("products.csv"), CSV.getBytes(Charset.defaultCharset()));
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.hw;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * Checks ProductTable.select against testing every product one by one.
+ */
+public class ProductTableTest {
+
+    private static final String[] NAMES = {"Starlite Backpack", "Aurora Gaming Mouse", "Cosmic Yoga Mat",
+            "Mouse Pad", "Star\nlite", "Nebula Lamp"};
+    private static final String[] STATUSES = {"In Stock", "Out of Stock", "Backorder"};
+
+    /**
+     * The selected rows are exactly those that pass the filter, in table order.
+     */
+    @ParameterizedTest
+    @CsvSource({
+            "0, 1000, 0, 5, .*",
+            "0, 1000, 0, 5, Star.*",
+            "10, 20, 0, 5, .*",
+            "0, 1000, 4.5, 5, .*Mouse.*",
+            "100, 400, 2, 3, Cosmic Yoga Mat",
+            "0, 1000, 0, 5, [A-M].*",
+            "250, 250, 0, 5, .*"
+    })
+    public void selectMatchesTheFilter(double minPrice, double maxPrice, double minRating, double maxRating,
+                                       String regex) {
+        ProductTable table = table(2000, 1);
+        ProductFilter filter = new ReportSpecs.Builder("products.csv")
+                .minimumPrice(minPrice).maximumPrice(maxPrice)
+                .minimumRating(minRating).maximumRating(maxRating)
+                .nameRegex(regex).build().getFilter();
+
+        assertArrayEquals(expected(table, filter), table.select(filter));
+    }
+
+    /**
+     * Bounds outside every value match nothing without a scan.
+     */
+    @Test
+    public void impossibleBoundsSelectNothing() {
+        ProductTable table = table(500, 2);
+        ProductFilter filter = new ReportSpecs.Builder("products.csv")
+                .minimumPrice(2000).maximumPrice(3000).build().getFilter();
+
+        assertFalse(table.canMatch(filter));
+        assertEquals(0, table.select(filter).length);
+    }
+
+    /**
+     * A row with a NaN price never passes a price range, and rows are
+     * materialised with their original values and stock status.
+     */
+    @Test
+    public void nanNeverMatchesAndRowsRoundTrip() {
+        Product nan = new Product("P1", "Odd", Double.NaN, "Backorder", 3.0, "d", "r");
+        Product plain = new Product("P2", "Even", 12.5, "In Stock", 4.0, "d2", "r2");
+        ProductTable table = new ProductTable.Builder().add(nan).add(plain).build();
+        ProductFilter filter = new ReportSpecs.Builder("products.csv").build().getFilter();
+
+        assertArrayEquals(new int[] {1}, table.select(filter));
+        Product row = table.getProduct(1);
+        assertEquals("P2", row.getId());
+        assertEquals("Even", row.getName());
+        assertEquals(12.5, row.getPrice());
+        assertEquals("In Stock", row.getStockStatus());
+        assertEquals(4.0, row.getRating());
+        assertEquals("Backorder", table.getStockStatus(0));
+        assertEquals(2, table.getStatusDictionary().length);
+    }
+
+    /**
+     * With the sorted indexes built, narrow and wide ranges select the same
+     * rows as a scan, including values equal to a bound.
+     */
+    @ParameterizedTest
+    @CsvSource({
+            "250, 250, 0, 5",
+            "10, 12, 0, 5",
+            "0, 1000, 4.9, 5",
+            "100, 110, 3, 4",
+            "0, 1000, 0, 5",
+            "600, 700, 0, 5"
+    })
+    public void indexedSelectMatchesScan(double minPrice, double maxPrice, double minRating, double maxRating) {
+        ProductTable table = table(5000, 3);
+        ProductFilter filter = new ReportSpecs.Builder("products.csv")
+                .minimumPrice(minPrice).maximumPrice(maxPrice)
+                .minimumRating(minRating).maximumRating(maxRating)
+                .nameRegex(".*").build().getFilter();
+        int[] scanned = table.select(filter);
+
+        table.buildIndexes();
+        assertTrue(table.hasIndexes());
+        assertArrayEquals(scanned, table.select(filter));
+        assertArrayEquals(expected(table, filter), scanned);
+    }
+
+    /**
+     * The index lists equal values in row order and leaves NaN outside
+     * every range.
+     */
+    @Test
+    public void sortedIndexBounds() {
+        SortedColumnIndex index = new SortedColumnIndex(new double[] {3.0, Double.NaN, 1.0, 3.0, 2.0, 3.0});
+
+        assertEquals(0, index.lowerBound(Double.NEGATIVE_INFINITY));
+        assertEquals(5, index.upperBound(Double.POSITIVE_INFINITY));
+        assertEquals(2, index.lowerBound(3.0));
+        assertEquals(5, index.upperBound(3.0));
+        assertEquals(0, index.rowAt(2));
+        assertEquals(3, index.rowAt(3));
+        assertEquals(5, index.rowAt(4));
+        assertEquals(1, index.upperBound(1.5));
+        assertEquals(2, index.rowAt(0));
+    }
+
+    /**
+     * Predicates every row passes are left out of the plan, except that
+     * ".*" stays in when some name holds a line terminator, which '.' does
+     * not match.
+     */
+    @Test
+    public void planSkipsPredicatesThatPassEveryRow() {
+        ProductFilter everything = new ReportSpecs.Builder("products.csv").build().getFilter();
+        ProductTable plain = new ProductTable.Builder()
+                .add(new Product("P1", "Lamp", 10, "In Stock", 4, "", ""))
+                .add(new Product("P2", "Desk", 20, "In Stock", 3, "", "")).build();
+        ProductTable broken = new ProductTable.Builder()
+                .add(new Product("P1", "Lamp", 10, "In Stock", 4, "", ""))
+                .add(new Product("P2", "Desk\u2028Top", 20, "In Stock", 3, "", "")).build();
+
+        assertEquals(0, plain.plan(everything).size());
+        assertArrayEquals(new int[] {0, 1}, plain.select(everything));
+
+        List<ProductTable.ScanStep> steps = broken.plan(everything);
+        assertEquals(1, steps.size());
+        assertEquals(ProductTable.ScanStep.Column.NAME, steps.get(0).getColumn());
+        assertArrayEquals(new int[] {0}, broken.select(everything));
+    }
+
+    /**
+     * Predicates run cheapest per rejected row first: a narrow price range
+     * before a regex, and a rare literal name before a wide rating range.
+     */
+    @Test
+    public void planRunsTheMostSelectivePredicatesFirst() {
+        ProductTable table = table(5000, 4);
+        ProductFilter narrowPrice = new ReportSpecs.Builder("products.csv")
+                .minimumPrice(10).maximumPrice(20).minimumRating(1).nameRegex("[A-S].*").build().getFilter();
+        ProductFilter rareName = new ReportSpecs.Builder("products.csv")
+                .minimumRating(0.5).nameRegex("Nebula Lamp Deluxe").build().getFilter();
+
+        List<ProductTable.ScanStep> steps = table.plan(narrowPrice);
+        assertEquals(3, steps.size());
+        assertEquals(ProductTable.ScanStep.Column.PRICE, steps.get(0).getColumn());
+        assertEquals(ProductTable.ScanStep.Column.NAME, steps.get(2).getColumn());
+        for (int i = 1; i < steps.size(); i++) {
+            assertTrue(steps.get(i - 1).getRank() <= steps.get(i).getRank());
+        }
+        assertArrayEquals(expected(table, narrowPrice), table.select(narrowPrice));
+
+        steps = table.plan(rareName);
+        assertEquals(ProductTable.ScanStep.Column.NAME, steps.get(0).getColumn());
+        assertEquals(ProductTable.ScanStep.Column.RATING, steps.get(1).getColumn());
+        assertEquals(0, table.select(rareName).length);
+    }
+
+    static ProductTable table(int rows, long seed) {
+        Random random = new Random(seed);
+        ProductTable.Builder builder = new ProductTable.Builder();
+        for (int i = 0; i < rows; i++) {
+            double price = Math.round(random.nextDouble() * 50000) / 100.0;
+            if (i % 97 == 0) {
+                price = 250; // Repeated values at a bound
+            }
+            double rating = Math.round(random.nextDouble() * 50) / 10.0;
+            builder.add(new Product("P" + i, NAMES[random.nextInt(NAMES.length)], price,
+                    STATUSES[random.nextInt(STATUSES.length)], rating, "", ""));
+        }
+        return builder.build();
+    }
+
+    static int[] expected(ProductTable table, ProductFilter filter) {
+        int[] rows = new int[table.size()];
+        int count = 0;
+        for (int row = 0; row < table.size(); row++) {
+            if (filter.test(table.getProduct(row))) {
+                rows[count++] = row;
+            }
+        }
+        return Arrays.copyOf(rows, count);
+    }
+}
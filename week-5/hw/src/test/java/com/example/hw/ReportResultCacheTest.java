@@ -0,0 +1,181 @@
+package com.example.hw;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Checks the keys and the tiers of ReportResultCache.
+ */
+public class ReportResultCacheTest {
+
+    private static final String ROWS = "ID,Name,Price,Stock,Rating,Features,Review\n"
+            + "P001,Starlite Backpack,49.99,In Stock,4.6,Durable,Great\n";
+
+    @TempDir
+    Path dir;
+
+    /**
+     * A link repointed at another file with the same size and time gets a
+     * new key.
+     */
+    @Test
+    public void keyFollowsTheFileANameResolvesTo() throws IOException {
+        FileTime time = FileTime.fromMillis(1_700_000_000_000L);
+        Path first = Files.writeString(dir.resolve("first.csv"), ROWS);
+        Path second = Files.writeString(dir.resolve("second.csv"), ROWS.replace("4.6", "1.2"));
+        Files.setLastModifiedTime(first, time);
+        Files.setLastModifiedTime(second, time);
+        Path link = dir.resolve("products.csv");
+        try {
+            Files.createSymbolicLink(link, first);
+        } catch (IOException | UnsupportedOperationException e) {
+            assumeTrue(false, "symbolic links are not available");
+        }
+        ReportSpecs specs = new ReportSpecs.Builder(link.toString()).build();
+        String before = ReportResultCache.keyFor("SUMMARY", specs);
+
+        Files.delete(link);
+        Files.createSymbolicLink(link, second);
+
+        assertNotEquals(before, ReportResultCache.keyFor("SUMMARY", specs));
+    }
+
+    /**
+     * The key changes with the default locale and is null for a missing file.
+     */
+    @Test
+    public void keyIncludesTheLocale() throws IOException {
+        Path file = Files.writeString(dir.resolve("products.csv"), ROWS);
+        ReportSpecs specs = new ReportSpecs.Builder(file.toString()).build();
+        Locale locale = Locale.getDefault();
+        try {
+            Locale.setDefault(Locale.US);
+            String us = ReportResultCache.keyFor("SUMMARY", specs);
+            Locale.setDefault(Locale.GERMANY);
+            assertNotEquals(us, ReportResultCache.keyFor("SUMMARY", specs));
+        } finally {
+            Locale.setDefault(locale);
+        }
+        assertEquals(ReportResultCache.keyFor("summary", specs), ReportResultCache.keyFor("SUMMARY", specs));
+        assertNull(ReportResultCache.keyFor("SUMMARY",
+                new ReportSpecs.Builder(dir.resolve("missing.csv").toString()).build()));
+    }
+
+    /**
+     * The memory tier counts hits and misses, evicts the least recently
+     * used entry once over budget and skips entries larger than the budget.
+     */
+    @Test
+    public void memoryTierEvictsLeastRecentlyUsed() {
+        ReportResultCache cache = new ReportResultCache(10);
+        cache.put("a", bytes(4));
+        cache.put("b", bytes(4));
+        assertArrayEquals(bytes(4), cache.get("a"));
+
+        cache.put("c", bytes(4));
+
+        assertNull(cache.get("b"));
+        assertArrayEquals(bytes(4), cache.get("a"));
+        assertArrayEquals(bytes(4), cache.get("c"));
+        assertEquals(8, cache.getMemoryBytes());
+        assertEquals(3, cache.getHits());
+        assertEquals(1, cache.getMisses());
+
+        cache.put("big", bytes(11));
+        assertNull(cache.get("big"));
+        assertEquals(8, cache.getMemoryBytes());
+    }
+
+    /**
+     * The disk tier serves a new cache over the same directory, and once
+     * over budget deletes the entry read or written longest ago.
+     */
+    @Test
+    public void diskTierSurvivesRestartAndEvictsLeastRecentlyUsed() throws IOException {
+        String directory = dir.resolve("cache").toString();
+        // Each entry takes 4 + 2 key bytes + 10 output bytes, so two fit
+        long budget = 2 * 16;
+        long now = System.currentTimeMillis();
+        ReportResultCache first = new ReportResultCache(0, directory, budget);
+        first.put("k1", bytes(10));
+        age(FileTime.fromMillis(now - 2_000_000), FileTime.fromMillis(now - 2_000_000));
+        first.put("k2", bytes(10));
+        age(FileTime.fromMillis(now - 2_000_000), FileTime.fromMillis(now - 1_000_000));
+
+        // Reading k1 makes k2 the least recently used entry
+        assertArrayEquals(bytes(10), new ReportResultCache(0, directory, budget).get("k1"));
+        first.put("k3", bytes(10));
+
+        ReportResultCache restarted = new ReportResultCache(0, directory, budget);
+        assertArrayEquals(bytes(10), restarted.get("k1"));
+        assertNull(restarted.get("k2"));
+        assertArrayEquals(bytes(10), restarted.get("k3"));
+        assertEquals(2, restarted.getHits());
+        assertEquals(1, restarted.getMisses());
+    }
+
+    /**
+     * A caching report is served from the cache until its file changes.
+     */
+    @Test
+    public void cachingReportMissesAfterTheFileChanges() throws IOException {
+        Path file = Files.writeString(dir.resolve("products.csv"), ROWS);
+        ReportSpecs specs = new ReportSpecs.Builder(file.toString()).build();
+        ReportResultCache cache = new ReportResultCache(1 << 20);
+        Report report = ReportFactory.getReport("SUMMARY", cache);
+
+        String output = render(report, specs);
+        assertEquals(output, render(report, specs));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+
+        Files.writeString(file, ROWS + "P002,Aurora Lamp,10.00,In Stock,2.0,Bright,Fine\n");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 5_000));
+        ProductCatalog.clearCache();
+        assertNotEquals(output, render(report, specs));
+        assertEquals(2, cache.getMisses());
+    }
+
+    private static byte[] bytes(int length) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) ('a' + i);
+        }
+        return bytes;
+    }
+
+    /** Sets entries at the old time to that time, and every other entry to the newer one. */
+    private void age(FileTime old, FileTime newer) throws IOException {
+        List<Path> entries = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir.resolve("cache"), "*.report")) {
+            stream.forEach(entries::add);
+        }
+        for (Path entry : entries) {
+            Files.setLastModifiedTime(entry, Files.getLastModifiedTime(entry).equals(old) ? old : newer);
+        }
+    }
+
+    private static String render(Report report, ReportSpecs specs) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        report.generate(new PrintStream(out, true, StandardCharsets.UTF_8), specs);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.hw;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Checks that ReportWriter's hand-written number formatting produces the
+ * same text as {@code String.format("%.2f")}, which the reports used before.
+ */
+public class ReportWriterTest {
+
+    /**
+     * Values ending in a half cent, where binary representation error
+     * decides which way Formatter rounds.
+     */
+    @ParameterizedTest
+    @ValueSource(doubles = {0.005, 0.015, 0.025, 0.045, 0.125, 1.005, 1.115, 2.675, 10.345,
+            99.995, 1234.565, 8.325, 0.285})
+    public void halfCentValuesMatchFormat(double value) {
+        assertMatchesFormat(value);
+    }
+
+    /**
+     * Negative values, including ones that round to zero and negative zero,
+     * which Formatter writes with a minus sign.
+     */
+    @ParameterizedTest
+    @ValueSource(doubles = {-0.0, -0.001, -0.005, -0.015, -1.005, -2.675, -99.995, -12.5, -1e-9})
+    public void negativeValuesMatchFormat(double value) {
+        assertMatchesFormat(value);
+    }
+
+    /**
+     * NaN and the infinities.
+     */
+    @ParameterizedTest
+    @ValueSource(doubles = {Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY})
+    public void nonFiniteValuesMatchFormat(double value) {
+        assertMatchesFormat(value);
+    }
+
+    /**
+     * Values at and beyond the range of the fast path, where the scaled
+     * value no longer fits the hand-written rounding.
+     */
+    @ParameterizedTest
+    @ValueSource(doubles = {999_999_999.995, 1e9, 1e15, 1e15 + 0.125, 123_456_789_012_345.67, 1e16,
+            -1e15, 9.007199254740993e15, 1e300, Double.MAX_VALUE, Double.MIN_VALUE})
+    public void largeAndTinyValuesMatchFormat(double value) {
+        assertMatchesFormat(value);
+    }
+
+    /**
+     * Every value with three decimals up to 1000, which covers each
+     * half-cent tie in that range.
+     */
+    @Test
+    public void everyThousandthMatchesFormat() {
+        for (int i = 0; i <= 1_000_000; i++) {
+            assertMatchesFormat(i / 1000.0);
+        }
+    }
+
+    /**
+     * Random prices and ratings of the magnitudes found in product files.
+     */
+    @Test
+    public void randomValuesMatchFormat() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            double value = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(12));
+            assertMatchesFormat(value);
+        }
+    }
+
+    /**
+     * Padded columns match {@code %-N.2f}.
+     */
+    @Test
+    public void paddedValuesMatchFormat() {
+        double[] values = {0.005, -2.675, 1e15, Double.NaN, 12345678.9};
+        for (double value : values) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ReportWriter writer = new ReportWriter(new PrintStream(out));
+            writer.fixed2(value, 12).flush();
+            assertEquals(String.format("%-12.2f", value), out.toString(), "value " + value);
+        }
+    }
+
+    private static void assertMatchesFormat(double value) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ReportWriter writer = new ReportWriter(new PrintStream(out));
+        writer.fixed2(value).flush();
+        assertEquals(String.format("%.2f", value), out.toString(), "value " + value);
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.hw;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * Checks that TopKReport keeps the same rows, in the same order, as a
+ * stable sort of every matching product.
+ */
+public class TopKReportTest {
+
+    /**
+     * Ties are broken by file order in both directions, whether the rows
+     * are ranked in one heap or in chunks that are combined.
+     */
+    @ParameterizedTest
+    @CsvSource({
+            "RATING, true, 10",
+            "RATING, false, 10",
+            "PRICE, true, 25",
+            "PRICE, false, 1",
+            "RATING, true, 5000"
+    })
+    public void keepsTheBestRowsInStableOrder(ReportSpecs.SortKey key, boolean descending, int limit) {
+        ReportSpecs specs = new ReportSpecs.Builder("products.csv").sortBy(key, descending).limit(limit).build();
+        List<Product> products = products(3000);
+
+        TopKReport.TopK single = new TopKReport.TopK(specs);
+        products.forEach(single::accept);
+
+        TopKReport.TopK chunked = new TopKReport.TopK(specs);
+        for (int from = 0; from < products.size(); from += 700) {
+            TopKReport.TopK chunk = new TopKReport.TopK(specs);
+            products.subList(from, Math.min(products.size(), from + 700)).forEach(chunk::accept);
+            chunked = chunked.combine(chunk);
+        }
+
+        List<String> expected = stableTop(products, key, descending, limit);
+        assertEquals(expected, ids(single));
+        assertEquals(expected, ids(chunked));
+    }
+
+    static List<String> ids(TopKReport.TopK top) {
+        return top.ranked().stream().map(top::productOf).map(Product::getId).collect(Collectors.toList());
+    }
+
+    static List<String> stableTop(List<Product> products, ReportSpecs.SortKey key, boolean descending,
+                                  int limit) {
+        Comparator<Product> order = Comparator.comparingDouble(
+                key == ReportSpecs.SortKey.PRICE ? Product::getPrice : Product::getRating);
+        List<Product> sorted = new ArrayList<>(products);
+        sorted.sort(descending ? order.reversed() : order); // List.sort is stable
+        return sorted.stream().limit(limit).map(Product::getId).collect(Collectors.toList());
+    }
+
+    // Few distinct values, so most rows tie with others
+    static List<Product> products(int count) {
+        Random random = new Random(7);
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            products.add(new Product("P" + i, "Product " + i, random.nextInt(20) * 5.0, "In Stock",
+                    random.nextInt(11) / 2.0, "", ""));
+        }
+        return products;
+    }
+}